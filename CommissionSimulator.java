@@ -0,0 +1,280 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+
+/**
+ * Estimates what a proposed commission schedule would cost by Monte Carlo simulation.
+ * Each scenario draws a units sold figure for every commission employee from a normal distribution
+ * centred on the units they currently have on record, then totals their paychecks under the proposed
+ * schedule using the same tier rules as `CommissionEmployee.getPaycheck`.
+ * Scenarios run in parallel in fixed-size tasks. Every task gets its own `SplittableRandom` stream,
+ * split from the seed in task order before any task starts, so a given seed always gives the same
+ * results no matter how many threads run them or in what order.
+ */
+public class CommissionSimulator {
+
+    // Number of scenarios each parallel task simulates with one random stream
+    static final int SCENARIOS_PER_TASK = 64;
+    // Maximum number of progress reports per run
+    static final int PROGRESS_REPORTS = 16;
+    // Schedules whose highest threshold is at most this many units get a rate for every whole number of units
+    static final int RATE_TABLE_LIMIT = 1 << 16;
+
+    private final float[] salaries;
+    private final float[] meanUnits;
+    private final float[] deviations;
+
+    /**
+     * Constructs a simulator for the active commission employees in `employeeList`. Other employees,
+     * and terminated ones, are ignored.
+     *
+     * @param employeeList The employees to simulate.
+     * @param volatility The standard deviation of units sold, as a fraction of each employee's current
+     *                   units sold; for example 0.25 for a 25% spread.
+     */
+    public CommissionSimulator(List<Employee> employeeList, float volatility) {
+        if (volatility < 0) {
+            throw new IllegalArgumentException("volatility must not be negative");
+        }
+        List<CommissionEmployee> reps = employeeList.stream()
+                .filter(employee -> employee instanceof CommissionEmployee && !employee.isTerminated())
+                .map(employee -> (CommissionEmployee) employee)
+                .toList();
+        salaries = new float[reps.size()];
+        meanUnits = new float[reps.size()];
+        deviations = new float[reps.size()];
+        for (int i = 0; i < reps.size(); i++) {
+            salaries[i] = reps.get(i).getSalary();
+            meanUnits[i] = reps.get(i).getUnitsSold();
+            deviations[i] = meanUnits[i] * volatility;
+        }
+    }
+
+    /**
+     * Returns the number of commission employees in each scenario.
+     *
+     * @return The number of employees.
+     */
+    public int size() {
+        return salaries.length;
+    }
+
+    /**
+     * Simulates `scenarios` pay periods under `schedule`.
+     *
+     * @param schedule The proposed commission schedule, thresholds in row 0 and values per unit in row 1.
+     * @param frequency How often the employees are paid; base salary is prorated the same way as a paycheck.
+     * @param scenarios The number of scenarios to simulate.
+     * @param seed The random seed.
+     * @return The cost of every scenario.
+     */
+    public SimulationResult run(float[][] schedule, PayFrequency frequency, int scenarios, long seed) {
+        return run(schedule, frequency, scenarios, seed, null);
+    }
+
+    /**
+     * Simulates `scenarios` pay periods under `schedule`, reporting the scenarios finished so far
+     * up to `PROGRESS_REPORTS` times while the run is in progress.
+     *
+     * @param schedule The proposed commission schedule, thresholds in row 0 and values per unit in row 1.
+     * @param frequency How often the employees are paid; base salary is prorated the same way as a paycheck.
+     * @param scenarios The number of scenarios to simulate.
+     * @param seed The random seed.
+     * @param progress Receives an estimate from the scenarios finished so far, or null for no reports.
+     *                 The last report is the final result.
+     * @return The cost of every scenario.
+     */
+    public SimulationResult run(float[][] schedule, PayFrequency frequency, int scenarios, long seed,
+                                Consumer<SimulationResult> progress) {
+        if (schedule[0].length != schedule[1].length) {
+            throw new IllegalArgumentException("commission schedule rows have different lengths");
+        }
+        int tasks = (scenarios + SCENARIOS_PER_TASK - 1) / SCENARIOS_PER_TASK;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[tasks];
+        for (int t = 0; t < tasks; t++) {
+            streams[t] = root.split();
+        }
+        int periods = frequency.periodsPerYear();
+        RateLookup rates = new RateLookup(schedule);
+        double[] costs = new double[scenarios];
+        // Costs of finished rounds, kept sorted so each report only has to sort and merge the newest round
+        double[] finished = new double[0];
+        int tasksPerRound = Math.max(1, (tasks + PROGRESS_REPORTS - 1) / PROGRESS_REPORTS);
+        for (int first = 0; first < tasks; first += tasksPerRound) {
+            int last = Math.min(tasks, first + tasksPerRound);
+            IntStream.range(first, last).parallel().forEach(t -> {
+                int from = t * SCENARIOS_PER_TASK;
+                int to = Math.min(scenarios, from + SCENARIOS_PER_TASK);
+                for (int s = from; s < to; s++) {
+                    costs[s] = simulate(rates, periods, streams[t]);
+                }
+            });
+            double[] round = Arrays.copyOfRange(costs, first * SCENARIOS_PER_TASK,
+                    Math.min(scenarios, last * SCENARIOS_PER_TASK));
+            Arrays.sort(round);
+            finished = merge(finished, round);
+            if (progress != null) {
+                progress.accept(new SimulationResult(finished, scenarios));
+            }
+        }
+        return new SimulationResult(finished, scenarios);
+    }
+
+    /**
+     * Draws units sold for every employee and returns the total of their paychecks.
+     */
+    private double simulate(RateLookup rates, int periods, SplittableRandom random) {
+        double cost = 0;
+        for (int i = 0; i < salaries.length; i++) {
+            int units = (int) Math.max(0, Math.round(meanUnits[i] + deviations[i] * random.nextGaussian()));
+            cost += salaries[i] / periods + rates.rate(units) * units;
+        }
+        return cost;
+    }
+
+    /**
+     * Gives the same rate as `CommissionEmployee.commissionRate` for a proposed schedule.
+     * Schedules up to `RATE_TABLE_LIMIT` units are tabulated for every whole number of units up to the highest
+     * threshold, so a lookup is one indexed load; every threshold has been reached beyond that, so the last entry
+     * holds for any larger number of units. A table for a higher threshold could run out of memory, so those
+     * schedules keep one entry per tier and are binary searched instead.
+     */
+    static final class RateLookup {
+        // Rate for every whole number of units, or null if the highest threshold is above RATE_TABLE_LIMIT
+        private final float[] table;
+        // Units needed to reach each tier. A tier only applies once every threshold up to it has been reached,
+        // so this is a running maximum and never decreases. Compared with units as a float, like `commissionRate`
+        private final float[] reach;
+        private final float[] values;
+
+        RateLookup(float[][] schedule) {
+            float[] thresholds = schedule[0];
+            reach = new float[thresholds.length];
+            values = schedule[1].clone();
+            float highest = Float.NEGATIVE_INFINITY;
+            for (int t = 0; t < thresholds.length; t++) {
+                highest = Math.max(highest, thresholds[t]);
+                reach[t] = highest;
+            }
+            if (highest <= RATE_TABLE_LIMIT) {
+                table = new float[(int) Math.max(0, Math.ceil(highest)) + 1];
+                for (int units = 0; units < table.length; units++) {
+                    table[units] = CommissionEmployee.commissionRate(schedule, units);
+                }
+            } else {
+                table = null;
+            }
+        }
+
+        /**
+         * Returns the commission paid per unit for `units` units.
+         */
+        float rate(int units) {
+            if (table != null) {
+                return table[Math.min(units, table.length - 1)];
+            }
+            // Count the tiers reached
+            int low = 0;
+            int high = reach.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (reach[mid] <= units) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low == 0 ? 0 : values[low - 1];
+        }
+    }
+
+    private static double[] merge(double[] a, double[] b) {
+        double[] merged = new double[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < merged.length; k++) {
+            merged[k] = j >= b.length || (i < a.length && a[i] <= b[j]) ? a[i++] : b[j++];
+        }
+        return merged;
+    }
+}
+
+/**
+ * The SimulationResult class holds the costs of the scenarios a `CommissionSimulator` has finished,
+ * in ascending order, with percentile and mean estimates over them.
+ */
+class SimulationResult {
+
+    private final double[] sortedCosts;
+    private final int plannedScenarios;
+
+    /**
+     * Constructs a SimulationResult.
+     *
+     * @param sortedCosts The cost of each finished scenario, in ascending order.
+     * @param plannedScenarios The number of scenarios in the whole run.
+     */
+    public SimulationResult(double[] sortedCosts, int plannedScenarios) {
+        this.sortedCosts = sortedCosts;
+        this.plannedScenarios = plannedScenarios;
+    }
+
+    /**
+     * Returns the number of scenarios this result covers.
+     *
+     * @return The number of finished scenarios.
+     */
+    public int scenarios() {
+        return sortedCosts.length;
+    }
+
+    /**
+     * Returns true if every scenario of the run has finished.
+     *
+     * @return True if this is the final result.
+     */
+    public boolean isComplete() {
+        return sortedCosts.length == plannedScenarios;
+    }
+
+    /**
+     * Returns the cost at percentile `p` using the nearest-rank method, for example 50 for the median
+     * or 95 for a cost that 95% of scenarios stay at or below.
+     *
+     * @param p The percentile, from 0 to 100.
+     * @return The cost at that percentile.
+     */
+    public double percentile(double p) {
+        if (p < 0 || p > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+        if (sortedCosts.length == 0) {
+            return Double.NaN;
+        }
+        int rank = (int) Math.ceil(p / 100 * sortedCosts.length);
+        return sortedCosts[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Returns the mean cost over the finished scenarios.
+     *
+     * @return The mean cost.
+     */
+    public double mean() {
+        double total = 0;
+        for (double cost : sortedCosts) {
+            total += cost;
+        }
+        return total / sortedCosts.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d/%,d scenarios: p50 $%,.2f  p90 $%,.2f  p99 $%,.2f", sortedCosts.length,
+                plannedScenarios, percentile(50), percentile(90), percentile(99));
+    }
+}
@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class that contains unit tests for CommissionSimulator. Each test checks that simulated costs follow
+ * the same commission rules as `getPaycheck()` and that a seed always reproduces the same results.
+ */
+class CommissionSimulatorTest {
+
+    /**
+     * Tests that with no volatility every scenario costs exactly the total of the employees' paychecks
+     * under the proposed schedule, including a schedule whose thresholds are out of order.
+     */
+    @Test
+    void testZeroVolatilityMatchesGetPaycheck() {
+        float[][] schedule = {{10, 200, 50}, {1, 2.5f, 3}};
+        List<Employee> roster = GeneratedRosterSource.generate(3000, 5);
+        double expected = 0;
+        for (Employee employee : roster) {
+            if (employee instanceof CommissionEmployee commission) {
+                CommissionEmployee copy = new CommissionEmployee("Chris", "Evans", commission.getSalary(), schedule);
+                copy.setUnitsSold(commission.getUnitsSold());
+                expected += copy.getPaycheck(PayFrequency.MONTHLY);
+            }
+        }
+        SimulationResult result = new CommissionSimulator(roster, 0).run(schedule, PayFrequency.MONTHLY, 100, 1);
+        assertEquals(expected, result.percentile(0), 1e-6);
+        assertEquals(expected, result.percentile(100), 1e-6);
+    }
+
+    /**
+     * Tests that a schedule with a threshold far beyond any table size is looked up by tier instead,
+     * with the same rates as `commissionRate`, and simulates without running out of memory.
+     */
+    @Test
+    void testHugeThresholdSchedule() {
+        float[][] schedule = {{10, 1e9f, 300, 2e9f}, {1, 2, 3, 4}};
+        CommissionSimulator.RateLookup lookup = new CommissionSimulator.RateLookup(schedule);
+        for (int units : new int[]{0, 9, 10, 299, 300, 999_999_999, 1_000_000_000, 2_000_000_000, Integer.MAX_VALUE}) {
+            assertEquals(CommissionEmployee.commissionRate(schedule, units), lookup.rate(units));
+        }
+        float[][] small = {{10, 200, 50}, {1, 2.5f, 3}};
+        CommissionSimulator.RateLookup table = new CommissionSimulator.RateLookup(small);
+        for (int units = 0; units < 500; units++) {
+            assertEquals(CommissionEmployee.commissionRate(small, units), table.rate(units));
+        }
+
+        List<Employee> roster = GeneratedRosterSource.generate(600, 5);
+        double expected = 0;
+        for (Employee employee : roster) {
+            if (employee instanceof CommissionEmployee commission) {
+                expected += commission.getSalary() / PayFrequency.WEEKLY.periodsPerYear()
+                        + CommissionEmployee.commissionRate(schedule, commission.getUnitsSold()) * commission.getUnitsSold();
+            }
+        }
+        SimulationResult result = new CommissionSimulator(roster, 0).run(schedule, PayFrequency.WEEKLY, 10, 1);
+        assertEquals(expected, result.mean(), 1e-6);
+    }
+
+    /**
+     * Tests that the same seed gives the same percentiles, that a different seed does not,
+     * and that percentiles never decrease.
+     */
+    @Test
+    void testSeedIsReproducible() {
+        float[][] schedule = {{20, 120, 250, 400}, {.6f, 1.3f, 2.1f, 3f}};
+        CommissionSimulator simulator = new CommissionSimulator(GeneratedRosterSource.generate(3000, 5), .3f);
+        SimulationResult first = simulator.run(schedule, PayFrequency.BIWEEKLY, 1000, 7);
+        SimulationResult second = simulator.run(schedule, PayFrequency.BIWEEKLY, 1000, 7);
+        SimulationResult other = simulator.run(schedule, PayFrequency.BIWEEKLY, 1000, 8);
+        assertEquals(first.mean(), second.mean());
+        for (int p = 0; p <= 100; p += 5) {
+            assertEquals(first.percentile(p), second.percentile(p));
+        }
+        assertNotEquals(first.mean(), other.mean());
+        assertTrue(first.percentile(10) <= first.percentile(50));
+        assertTrue(first.percentile(50) <= first.percentile(90));
+    }
+
+    /**
+     * Tests that progress reports cover more scenarios each time and that the last one is the final result.
+     */
+    @Test
+    void testProgressReports() {
+        float[][] schedule = {{20, 120}, {.6f, 1.3f}};
+        CommissionSimulator simulator = new CommissionSimulator(GeneratedRosterSource.generate(600, 5), .3f);
+        List<SimulationResult> reports = new ArrayList<>();
+        SimulationResult result = simulator.run(schedule, PayFrequency.WEEKLY, 5000, 3, reports::add);
+        assertTrue(reports.size() > 1);
+        assertTrue(reports.size() <= CommissionSimulator.PROGRESS_REPORTS);
+        for (int i = 1; i < reports.size(); i++) {
+            assertTrue(reports.get(i).scenarios() > reports.get(i - 1).scenarios());
+        }
+        assertFalse(reports.get(0).isComplete());
+        assertTrue(result.isComplete());
+        assertEquals(5000, result.scenarios());
+        assertEquals(result.percentile(50), reports.get(reports.size() - 1).percentile(50));
+    }
+}
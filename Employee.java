@@ -1,9 +1,23 @@
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public abstract class Employee {
 
-    private static int nextEmployeeNumber = 0;
+    // Manager ID of an employee who does not report to anyone
+    public static final int NO_MANAGER = -1;
+
+    // Atomic because rosters can create employees on a loader thread while the menu adds new ones
+    private static final AtomicInteger nextEmployeeNumber = new AtomicInteger();
+    private static volatile EmployeeChangeFeed changeFeed;
+    // Set on threads applying a bulk change, which collect their changes here and publish them all at once afterwards
+    private static final ThreadLocal<List<EmployeeChange>> deferredChanges = new ThreadLocal<>();
     private final int employeeNumber;
-    private String firstName;
-    private String lastName;
+    private int firstNameId;
+    private int lastNameId;
+    // Tombstone for a terminated employee; volatile so readers skip it as soon as it is written
+    private volatile boolean terminated;
+    private int managerId = NO_MANAGER;
+    private String department;
     public String payType;
 
     /**
@@ -13,9 +27,70 @@ public abstract class Employee {
      * @param lastName The last name of the employee.
      */
     public Employee(String firstName, String lastName) {
-        this.employeeNumber = nextEmployeeNumber++;
-        this.firstName = firstName;
-        this.lastName = lastName;
+        this.employeeNumber = nextEmployeeNumber.getAndIncrement();
+        this.firstNameId = NamePool.shared().intern(firstName);
+        this.lastNameId = NamePool.shared().intern(lastName);
+    }
+
+    /**
+     * Installs the feed that receives every employee create and update, or removes it when null.
+     * Creates are published when an employee joins a `Roster` rather than from the constructor,
+     * where a subscriber on another thread could see an employee whose subclass fields are not set yet.
+     *
+     * @param feed The change feed to publish to.
+     */
+    public static void setChangeFeed(EmployeeChangeFeed feed) {
+        changeFeed = feed;
+    }
+
+    public static EmployeeChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    /**
+     * Starts or stops deferring the changes made by the current thread. While deferred, each change is added
+     * to `sink` instead of being published, and the caller is responsible for publishing them itself,
+     * for example with `EmployeeChangeFeed.publishAll`.
+     *
+     * @param sink The list that collects this thread's changes, or null to resume publishing.
+     */
+    static void deferChanges(List<EmployeeChange> sink) {
+        if (sink == null) {
+            deferredChanges.remove();
+        } else {
+            deferredChanges.set(sink);
+        }
+    }
+
+    /**
+     * Publishes a create for every employee in `employees` on the installed change feed, if there is one.
+     *
+     * @param employees The fully constructed employees to announce.
+     */
+    static void publishCreated(List<Employee> employees) {
+        EmployeeChangeFeed feed = changeFeed;
+        if (feed != null && !employees.isEmpty()) {
+            feed.publishAll(EmployeeChange.Type.CREATE, employees, null);
+        }
+    }
+
+    /**
+     * Publishes a change to this employee on the installed change feed, if there is one.
+     *
+     * @param type The kind of change.
+     * @param field The name of the changed field, or null for creates and deletes.
+     */
+    protected void publishChange(EmployeeChange.Type type, String field) {
+        EmployeeChangeFeed feed = changeFeed;
+        if (feed == null) {
+            return;
+        }
+        List<EmployeeChange> deferred = deferredChanges.get();
+        if (deferred != null) {
+            deferred.add(new EmployeeChange(type, this, field));
+        } else {
+            feed.publish(type, this, field);
+        }
     }
 
     public int getEmployeeNumber() {
@@ -27,19 +102,73 @@ public abstract class Employee {
     }
 
     public String getLastName() {
-        return lastName;
+        return NamePool.shared().name(lastNameId);
+    }
+
+    public int getLastNameId() {
+        return lastNameId;
     }
 
     public void setLastName(String lastName) {
-        this.lastName = lastName;
+        this.lastNameId = NamePool.shared().intern(lastName);
+        publishChange(EmployeeChange.Type.UPDATE, "lastName");
     }
 
     public String getFirstName() {
-        return firstName;
+        return NamePool.shared().name(firstNameId);
+    }
+
+    public int getFirstNameId() {
+        return firstNameId;
     }
 
     public void setFirstName(String firstName) {
-        this.firstName = firstName;
+        this.firstNameId = NamePool.shared().intern(firstName);
+        publishChange(EmployeeChange.Type.UPDATE, "firstName");
+    }
+
+    public int getManagerId() {
+        return managerId;
+    }
+
+    /**
+     * Sets the employee this employee reports to. An `OrgChart` subscribed to the change feed moves the
+     * employee, along with everyone who reports to them, under the new manager.
+     *
+     * @param managerId The manager's employee ID, or `NO_MANAGER`.
+     */
+    public void setManagerId(int managerId) {
+        this.managerId = managerId;
+        publishChange(EmployeeChange.Type.UPDATE, "managerId");
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public void setDepartment(String department) {
+        this.department = department;
+        publishChange(EmployeeChange.Type.UPDATE, "department");
+    }
+
+    /**
+     * Returns whether the employee has been terminated. Terminated employees stay in the roster as tombstones
+     * until it is compacted, and are skipped by searches and payroll runs.
+     *
+     * @return True if the employee is terminated.
+     */
+    public boolean isTerminated() {
+        return terminated;
+    }
+
+    /**
+     * Marks the employee as terminated or rehired. Only `Roster` calls this, so that its tombstone count
+     * stays correct; it publishes the matching delete or create once it has released its locks.
+     *
+     * @param terminated True to terminate the employee, false to rehire them.
+     */
+    void setTerminated(boolean terminated) {
+        this.terminated = terminated;
     }
 
     /**
@@ -50,7 +179,7 @@ public abstract class Employee {
      */
     @Override
     public String toString() {
-        return "Id:" + employeeNumber + " - " + firstName + ", " + lastName;
+        return "Id:" + employeeNumber + " - " + getFirstName() + ", " + getLastName();
     }
 
     /**
@@ -61,6 +190,17 @@ public abstract class Employee {
      */
     public abstract float getPaycheck();
 
+    /**
+     * Calculates and returns the paycheck amount for a pay group paid at `frequency`.
+     * Pay that does not depend on the length of the period, such as hours worked, is the same as `getPaycheck()`.
+     *
+     * @param frequency How often the employee is paid.
+     * @return The paycheck amount.
+     */
+    public float getPaycheck(PayFrequency frequency) {
+        return getPaycheck();
+    }
+
 }
 
 /**
@@ -90,16 +230,28 @@ class SalariedEmployee extends Employee {
 
     public void setSalary(float salary) {
         this.salary = salary;
+        publishChange(EmployeeChange.Type.UPDATE, "salary");
     }
 
     /**
-     * Calculates and returns the paycheck amount, which is the salary divided by 26.
+     * Calculates and returns the biweekly paycheck amount, which is the salary divided by 26.
      *
      * @return The paycheck amount.
      */
     @Override
     public float getPaycheck() {
-        return salary / 26;
+        return getPaycheck(PayFrequency.BIWEEKLY);
+    }
+
+    /**
+     * Calculates and returns the paycheck amount, which is the salary divided by the number of pay periods per year.
+     *
+     * @param frequency How often the employee is paid.
+     * @return The paycheck amount.
+     */
+    @Override
+    public float getPaycheck(PayFrequency frequency) {
+        return salary / frequency.periodsPerYear();
     }
 
     /**
@@ -117,12 +269,16 @@ class SalariedEmployee extends Employee {
 
 /**
  * The HourlyEmployee class represents an employee who is paid based on the number of hours worked.
- * It extends the Employee class and calculates the paycheck as hours worked multiplied by the hourly rate.
+ * It extends the Employee class and calculates the paycheck as hours worked multiplied by the hourly rate,
+ * with any overtime hours among them paid at their overtime multiplier.
  */
 class HourlyEmployee extends Employee {
 
     private float hours;
     private float rate;
+    // How many of `hours` are overtime, and the multiplier of the rate they are paid at
+    private float overtimeHours;
+    private float overtimeMultiplier = 1;
 
     /**
      * Constructs an HourlyEmployee with the given first name, last name, and hourly rate.
@@ -143,6 +299,7 @@ class HourlyEmployee extends Employee {
 
     public void setRate(float rate) {
         this.rate = rate;
+        publishChange(EmployeeChange.Type.UPDATE, "rate");
     }
 
     public float getHours() {
@@ -151,16 +308,47 @@ class HourlyEmployee extends Employee {
 
     public void setHours(float hours) {
         this.hours = hours;
+        publishChange(EmployeeChange.Type.UPDATE, "hours");
+    }
+
+    public float getOvertimeHours() {
+        return overtimeHours;
+    }
+
+    public float getOvertimeMultiplier() {
+        return overtimeMultiplier;
     }
 
     /**
-     * Calculates and returns the paycheck amount, which is the hours worked multiplied by the hourly rate.
+     * Sets how many of the hours worked are overtime and the multiplier of the rate they are paid at.
+     * The hours worked, set with `setHours`, already include the overtime hours.
+     *
+     * @param overtimeHours The overtime hours among the hours worked.
+     * @param multiplier The multiplier for overtime hours, such as 1.5 for time and a half.
+     */
+    public void setOvertime(float overtimeHours, float multiplier) {
+        this.overtimeHours = overtimeHours;
+        this.overtimeMultiplier = multiplier;
+        publishChange(EmployeeChange.Type.UPDATE, "overtime");
+    }
+
+    /**
+     * Returns the hours to pay at the regular rate: the hours worked plus the overtime premium.
+     *
+     * @return The paid hours.
+     */
+    public float getPaidHours() {
+        return hours + overtimeHours * (overtimeMultiplier - 1);
+    }
+
+    /**
+     * Calculates and returns the paycheck amount, which is the paid hours multiplied by the hourly rate.
      *
      * @return The paycheck amount.
      */
     @Override
     public float getPaycheck() {
-        return hours * rate;
+        return getPaidHours() * rate;
     }
 
     /**
@@ -205,6 +393,7 @@ class CommissionEmployee extends SalariedEmployee {
 
     public void setUnitsSold(int unitsSold) {
         this.unitsSold = unitsSold;
+        publishChange(EmployeeChange.Type.UPDATE, "unitsSold");
     }
 
     public float[][] getCommissionSchedule() {
@@ -213,26 +402,41 @@ class CommissionEmployee extends SalariedEmployee {
 
     public void setCommissionSchedule(float[][] commissionSchedule) {
         this.commissionSchedule = commissionSchedule;
+        publishChange(EmployeeChange.Type.UPDATE, "commissionSchedule");
     }
 
     /**
-     * Calculates and returns the paycheck amount, which is the base salary divided by 26 plus the commission
-     * based on units sold.
+     * Calculates and returns the paycheck amount, which is the base salary divided by the number of pay periods
+     * per year plus the commission based on units sold.
      *
+     * @param frequency How often the employee is paid.
      * @return The paycheck amount.
      */
     @Override
-    public float getPaycheck() {
-        float weekly = salary / 26;
+    public float getPaycheck(PayFrequency frequency) {
+        float weekly = salary / frequency.periodsPerYear();
+        return weekly + (commissionRate(commissionSchedule, unitsSold) * unitsSold);
+    }
+
+    /**
+     * Returns the commission paid per unit for `unitsSold` units under `schedule`: the value of the last tier
+     * reached, stopping at the first threshold above `unitsSold`, or 0 if no tier is reached.
+     *
+     * @param schedule A commission schedule, thresholds in row 0 and values per unit in row 1.
+     * @param unitsSold The number of units sold.
+     * @return The commission per unit.
+     */
+    static float commissionRate(float[][] schedule, int unitsSold) {
+        float[] thresholds = schedule[0];
         float value = 0;
-        for (int i = 0; i < commissionSchedule[0].length; i++) {
-            if (commissionSchedule[0][i] <= unitsSold) {
-                value = commissionSchedule[1][i];
+        for (int i = 0; i < thresholds.length; i++) {
+            if (thresholds[i] <= unitsSold) {
+                value = schedule[1][i];
             } else {
                 break;
             }
         }
-        return weekly + (value * unitsSold);
+        return value;
     }
 
     /**
@@ -0,0 +1,210 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+
+/**
+ * Utility class for changing many employees at once, such as a 3% raise for every salaried employee.
+ * An update selects employees with a predicate (an `EmployeeQuery` works well) and applies a `Change` to each.
+ * Terminated employees are never selected.
+ * It runs in two phases over parallel partitions, both while holding the roster's write lock:
+ * - prepare: every change is computed without touching any employee, so an error leaves the roster unchanged
+ * - commit: the new values are written
+ * Holding the lock across both phases means two concurrent updates cannot compute from the same old values.
+ * Per-employee change events are deferred while committing. The changes, with the fields each one set, are
+ * published to the installed `EmployeeChangeFeed` in one call once the lock is released, so derived caches
+ * and indexes refresh once per update rather than once per employee.
+ */
+public class EmployeeBulkUpdate {
+
+    // Number of employees each parallel task prepares or commits
+    static final int PARTITION_SIZE = 4096;
+
+    /**
+     * A change to apply to each selected employee.
+     */
+    public interface Change {
+
+        /**
+         * Computes the change for `employee` without modifying it.
+         *
+         * @param employee The employee to change.
+         * @return An action that writes the new values, or null if the change does not apply to this employee.
+         */
+        Runnable prepare(Employee employee);
+    }
+
+    /**
+     * Multiplies the salary of salaried and commission employees by `factor`, for example 1.03 for a 3% raise.
+     *
+     * @param factor The factor to multiply salaries by.
+     * @return The change.
+     */
+    public static Change salaryTimes(float factor) {
+        return employee -> {
+            if (!(employee instanceof SalariedEmployee salaried)) {
+                return null;
+            }
+            float salary = salaried.getSalary() * factor;
+            return () -> salaried.setSalary(salary);
+        };
+    }
+
+    /**
+     * Adds `delta` to the hourly rate of hourly employees, for example 0.50 for a fifty cent raise.
+     *
+     * @param delta The amount to add to the rate.
+     * @return The change.
+     */
+    public static Change ratePlus(float delta) {
+        return employee -> {
+            if (!(employee instanceof HourlyEmployee hourly)) {
+                return null;
+            }
+            float rate = hourly.getRate() + delta;
+            return () -> hourly.setRate(rate);
+        };
+    }
+
+    /**
+     * Gives every commission employee a copy of the same new commission schedule, so a later change to one
+     * employee's schedule, or to `schedule` itself, does not affect the others.
+     *
+     * @param schedule The new commission schedule.
+     * @return The change.
+     */
+    public static Change commissionSchedule(float[][] schedule) {
+        float[][] template = copyOf(schedule);
+        return employee -> {
+            if (!(employee instanceof CommissionEmployee commission)) {
+                return null;
+            }
+            float[][] own = copyOf(template);
+            return () -> commission.setCommissionSchedule(own);
+        };
+    }
+
+    private static float[][] copyOf(float[][] schedule) {
+        float[][] copy = new float[schedule.length][];
+        for (int row = 0; row < schedule.length; row++) {
+            copy[row] = schedule[row].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Applies `change` to every employee in `roster` that matches `filter`.
+     * Readers that go through `Roster.read` see either none or all of the update.
+     *
+     * @param roster The roster to update.
+     * @param filter Selects the employees to change.
+     * @param change The change to apply.
+     * @return The number of employees changed.
+     */
+    public static int apply(Roster roster, Predicate<Employee> filter, Change change) {
+        roster.employees();
+        List<EmployeeChange> changes;
+        int changed;
+        Lock lock = roster.writeLock();
+        lock.lock();
+        try {
+            Employee[] employees = roster.employees().toArray(new Employee[0]);
+            Runnable[] commits = prepare(employees, filter, change);
+            changes = commit(commits);
+            changed = count(commits);
+        } finally {
+            lock.unlock();
+        }
+        // Published after unlocking, since a full feed blocks until its subscribers catch up
+        publish(changes);
+        return changed;
+    }
+
+    /**
+     * Applies `change` to every employee in `employeeList` that matches `filter`.
+     * No lock is taken, so this is meant for lists that no other thread is reading.
+     *
+     * @param employeeList The employees to update.
+     * @param filter Selects the employees to change.
+     * @param change The change to apply.
+     * @return The number of employees changed.
+     */
+    public static int apply(List<Employee> employeeList, Predicate<Employee> filter, Change change) {
+        Employee[] employees = employeeList.toArray(new Employee[0]);
+        Runnable[] commits = prepare(employees, filter, change);
+        publish(commit(commits));
+        return count(commits);
+    }
+
+    /**
+     * Computes the commit action for every matching employee in parallel partitions.
+     * Slots for employees that are not changed are left null.
+     */
+    private static Runnable[] prepare(Employee[] employees, Predicate<Employee> filter, Change change) {
+        Runnable[] commits = new Runnable[employees.length];
+        forEachPartition(employees.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (!employees[i].isTerminated() && filter.test(employees[i])) {
+                    commits[i] = change.prepare(employees[i]);
+                }
+            }
+        });
+        return commits;
+    }
+
+    /**
+     * Runs every commit action in parallel partitions and returns the changes they made, in no particular order.
+     */
+    private static List<EmployeeChange> commit(Runnable[] commits) {
+        ConcurrentLinkedQueue<List<EmployeeChange>> collected = new ConcurrentLinkedQueue<>();
+        forEachPartition(commits.length, (from, to) -> {
+            List<EmployeeChange> changes = new ArrayList<>();
+            Employee.deferChanges(changes);
+            try {
+                for (int i = from; i < to; i++) {
+                    if (commits[i] != null) {
+                        commits[i].run();
+                    }
+                }
+            } finally {
+                Employee.deferChanges(null);
+            }
+            collected.add(changes);
+        });
+        List<EmployeeChange> changes = new ArrayList<>();
+        for (List<EmployeeChange> partition : collected) {
+            changes.addAll(partition);
+        }
+        return changes;
+    }
+
+    private static int count(Runnable[] commits) {
+        int count = 0;
+        for (Runnable commit : commits) {
+            if (commit != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void publish(List<EmployeeChange> changes) {
+        EmployeeChangeFeed feed = Employee.getChangeFeed();
+        if (feed != null) {
+            feed.publishAll(changes);
+        }
+    }
+
+    private interface Partition {
+        void run(int from, int to);
+    }
+
+    private static void forEachPartition(int size, Partition partition) {
+        int partitions = (size + PARTITION_SIZE - 1) / PARTITION_SIZE;
+        IntStream.range(0, partitions).parallel()
+                .forEach(p -> partition.run(p * PARTITION_SIZE, Math.min(size, (p + 1) * PARTITION_SIZE)));
+    }
+}
@@ -0,0 +1,152 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class that contains unit tests for EmployeeBulkUpdate. The tests check which employees
+ * a bulk update changes, that a failed update changes nothing, that concurrent updates to a roster
+ * do not lose each other's changes, and that the change feed receives one batch per update.
+ */
+class EmployeeBulkUpdateTest {
+
+    /**
+     * Tests a 3% raise for salaried employees selected with a query; hourly employees and
+     * employees outside the query are left alone.
+     */
+    @Test
+    void testSalaryRaiseWithQuery() {
+        SalariedEmployee salaried = new SalariedEmployee("John", "Doe", 50000);
+        CommissionEmployee commission = new CommissionEmployee("Chris", "Evans", 40000, new float[][]{{0}, {1}});
+        HourlyEmployee hourly = new HourlyEmployee("Jane", "Smith", 20);
+        List<Employee> roster = List.of(salaried, commission, hourly);
+
+        int changed = EmployeeBulkUpdate.apply(roster, EmployeeQuery.parse("payType = salary").asPredicate(),
+                EmployeeBulkUpdate.salaryTimes(1.03f));
+        assertEquals(1, changed);
+        assertEquals(50000 * 1.03f, salaried.getSalary());
+        assertEquals(40000, commission.getSalary());
+        assertEquals(20, hourly.getRate());
+    }
+
+    /**
+     * Tests that an error while preparing an update leaves every employee unchanged.
+     */
+    @Test
+    void testFailedUpdateChangesNothing() {
+        List<Employee> roster = GeneratedRosterSource.generate(3 * EmployeeBulkUpdate.PARTITION_SIZE, 5);
+        float[] rates = new float[roster.size()];
+        for (int i = 0; i < roster.size(); i++) {
+            rates[i] = roster.get(i) instanceof HourlyEmployee hourly ? hourly.getRate() : 0;
+        }
+        Employee last = roster.get(roster.size() - 1);
+        assertThrows(IllegalStateException.class, () -> EmployeeBulkUpdate.apply(roster, e -> true, e -> {
+            if (e == last) {
+                throw new IllegalStateException("bad row");
+            }
+            return EmployeeBulkUpdate.ratePlus(.5f).prepare(e);
+        }));
+        for (int i = 0; i < roster.size(); i++) {
+            if (roster.get(i) instanceof HourlyEmployee hourly) {
+                assertEquals(rates[i], hourly.getRate());
+            }
+        }
+    }
+
+    /**
+     * Tests that updates applied to a roster from several threads at once all take effect.
+     */
+    @Test
+    void testConcurrentUpdatesAreNotLost() throws InterruptedException {
+        Roster roster = new Roster(new GeneratedRosterSource(2 * EmployeeBulkUpdate.PARTITION_SIZE, 13));
+        List<Employee> employees = List.copyOf(roster.employees());
+        float[] expected = new float[employees.size()];
+        for (int i = 0; i < employees.size(); i++) {
+            expected[i] = employees.get(i) instanceof HourlyEmployee hourly ? hourly.getRate() : 0;
+        }
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int round = 0; round < 10; round++) {
+                    EmployeeBulkUpdate.apply(roster, e -> true, EmployeeBulkUpdate.ratePlus(1));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int i = 0; i < employees.size(); i++) {
+            if (employees.get(i) instanceof HourlyEmployee hourly) {
+                for (int raise = 0; raise < 40; raise++) {
+                    expected[i] += 1;
+                }
+                assertEquals(expected[i], hourly.getRate());
+            }
+        }
+    }
+
+    /**
+     * Tests that every commission employee gets a schedule of their own.
+     */
+    @Test
+    void testCommissionScheduleIsCopied() {
+        CommissionEmployee first = new CommissionEmployee("Eric", "Wilson", 65000, new float[][]{{0}, {1}});
+        CommissionEmployee second = new CommissionEmployee("Emma", "Hughes", 69000, new float[][]{{0}, {1}});
+        float[][] schedule = {{10, 100}, {.5f, 1.2f}};
+        assertEquals(2, EmployeeBulkUpdate.apply(List.of(first, second), e -> true,
+                EmployeeBulkUpdate.commissionSchedule(schedule)));
+
+        assertNotSame(first.getCommissionSchedule(), second.getCommissionSchedule());
+        assertNotSame(first.getCommissionSchedule()[1], second.getCommissionSchedule()[1]);
+        first.getCommissionSchedule()[1][0] = 9;
+        schedule[1][1] = 9;
+        assertEquals(.5f, second.getCommissionSchedule()[1][0]);
+        assertEquals(1.2f, second.getCommissionSchedule()[1][1]);
+    }
+
+    /**
+     * Tests that a bulk update reaches change feed subscribers as a single batch that names the changed field.
+     */
+    @Test
+    void testUpdatePublishesOneBatch() throws InterruptedException {
+        List<Employee> roster = GeneratedRosterSource.generate(2000, 9);
+        EmployeeChangeFeed feed = new EmployeeChangeFeed();
+        List<List<EmployeeChange>> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        feed.subscribe(new Flow.Subscriber<>() {
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            public void onNext(List<EmployeeChange> batch) {
+                batches.add(batch);
+            }
+
+            public void onError(Throwable error) {
+                done.countDown();
+            }
+
+            public void onComplete() {
+                done.countDown();
+            }
+        });
+        Employee.setChangeFeed(feed);
+        try {
+            int changed = EmployeeBulkUpdate.apply(roster, e -> true, EmployeeBulkUpdate.ratePlus(.5f));
+            feed.close();
+            done.await();
+            assertEquals(1, batches.size());
+            assertEquals(changed, batches.get(0).size());
+            for (EmployeeChange change : batches.get(0)) {
+                assertEquals(List.of("rate"), change.getFields());
+            }
+        } finally {
+            Employee.setChangeFeed(null);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+
+/**
+ * Publishes every create, update and delete of an `Employee` as an `EmployeeChange` event on a
+ * `java.util.concurrent.Flow` publisher so caches and indexes can stay in sync without rescanning the list.
+ * Changes are coalesced per employee and delivered to subscribers in batches. Each subscriber has a bounded
+ * buffer, and `flush()` blocks when a subscriber falls behind, giving backpressure to the writers.
+ * Install a feed with `Employee.setChangeFeed` to start receiving events.
+ */
+public class EmployeeChangeFeed implements Flow.Publisher<List<EmployeeChange>>, AutoCloseable {
+
+    private final SubmissionPublisher<List<EmployeeChange>> publisher;
+    private final int batchSize;
+    private final Map<Integer, EmployeeChange> pending = new LinkedHashMap<>();
+    // Held from taking a batch until it is submitted, so batches reach subscribers in the order they were taken.
+    // Separate from the `pending` lock so writers can keep recording changes while a flush is blocked
+    private final Object submitLock = new Object();
+    private int batchDepth = 0;
+
+    /**
+     * Constructs a change feed that delivers on the common pool with a batch size of 256 and
+     * a per-subscriber buffer of 64 batches.
+     */
+    public EmployeeChangeFeed() {
+        this(ForkJoinPool.commonPool(), 256, 64);
+    }
+
+    /**
+     * Constructs a change feed.
+     *
+     * @param executor The executor used to deliver batches to subscribers.
+     * @param batchSize The number of coalesced changes that triggers an automatic flush.
+     * @param maxBufferedBatches The maximum number of batches buffered per subscriber before `flush()` blocks.
+     */
+    public EmployeeChangeFeed(Executor executor, int batchSize, int maxBufferedBatches) {
+        if (batchSize < 1 || maxBufferedBatches < 1) {
+            throw new IllegalArgumentException("batchSize and maxBufferedBatches must be positive");
+        }
+        this.publisher = new SubmissionPublisher<>(executor, maxBufferedBatches);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<EmployeeChange>> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * Records a change and coalesces it with any pending change for the same employee:
+     * - CREATE followed by UPDATE stays a CREATE.
+     * - CREATE followed by DELETE cancels out, since no subscriber has seen the employee yet.
+     * - Anything followed by DELETE becomes a DELETE.
+     * - DELETE followed by UPDATE stays a DELETE; only a CREATE, such as a rehire, replaces it.
+     * Flushes automatically once `batchSize` employees have pending changes, unless a batch is open.
+     *
+     * @param type The kind of change.
+     * @param employee The employee that changed.
+     * @param field The name of the changed field, or null for creates and deletes.
+     */
+    public void publish(EmployeeChange.Type type, Employee employee, String field) {
+        boolean full;
+        synchronized (pending) {
+            coalesce(type, employee, field);
+            full = batchDepth == 0 && pending.size() >= batchSize;
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    /**
+     * Records the same kind of change for every employee in `employees` under a single lock acquisition,
+     * coalescing each one as `publish` does, then flushes unless a batch is open.
+     * Used by bulk operations so subscribers see the whole operation as one batch.
+     *
+     * @param type The kind of change.
+     * @param employees The employees that changed.
+     * @param field The name of the changed field, or null if it varies or does not apply.
+     */
+    public void publishAll(EmployeeChange.Type type, List<Employee> employees, String field) {
+        boolean flush;
+        synchronized (pending) {
+            for (Employee employee : employees) {
+                coalesce(type, employee, field);
+            }
+            flush = batchDepth == 0;
+        }
+        if (flush) {
+            flush();
+        }
+    }
+
+    /**
+     * Records every change in `changes` under a single lock acquisition, coalescing each one as `publish` does,
+     * then flushes unless a batch is open. Used by bulk operations that collected their changes while
+     * publishing was deferred, so subscribers still see which fields changed.
+     *
+     * @param changes The changes to record, in the order they were made.
+     */
+    public void publishAll(List<EmployeeChange> changes) {
+        boolean flush;
+        synchronized (pending) {
+            for (EmployeeChange change : changes) {
+                if (change.getFields().isEmpty()) {
+                    coalesce(change.getType(), change.getEmployee(), null);
+                }
+                for (String field : change.getFields()) {
+                    coalesce(change.getType(), change.getEmployee(), field);
+                }
+            }
+            flush = batchDepth == 0;
+        }
+        if (flush) {
+            flush();
+        }
+    }
+
+    /**
+     * Merges a change into `pending`. Must be called while holding the `pending` lock.
+     */
+    private void coalesce(EmployeeChange.Type type, Employee employee, String field) {
+        int id = employee.getEmployeeNumber();
+        EmployeeChange previous = pending.get(id);
+        if (previous == null) {
+            pending.put(id, new EmployeeChange(type, employee, field));
+        } else if (previous.getType() == EmployeeChange.Type.CREATE && type == EmployeeChange.Type.DELETE) {
+            pending.remove(id);
+        } else if (previous.getType() == EmployeeChange.Type.DELETE && type == EmployeeChange.Type.UPDATE) {
+            return;
+        } else if (previous.getType() == EmployeeChange.Type.CREATE || previous.getType() == type) {
+            pending.put(id, previous.merge(field));
+        } else {
+            pending.put(id, new EmployeeChange(type, employee, field));
+        }
+    }
+
+    /**
+     * Opens a batch. Automatic flushes are suppressed until the matching `endBatch()`,
+     * so a mass update is delivered as one coalesced set of changes.
+     */
+    public void beginBatch() {
+        synchronized (pending) {
+            batchDepth++;
+        }
+    }
+
+    /**
+     * Closes a batch opened by `beginBatch()` and flushes once the outermost batch is closed.
+     */
+    public void endBatch() {
+        boolean outermost;
+        synchronized (pending) {
+            if (batchDepth == 0) {
+                throw new IllegalStateException("endBatch() without beginBatch()");
+            }
+            outermost = --batchDepth == 0;
+        }
+        if (outermost) {
+            flush();
+        }
+    }
+
+    /**
+     * Delivers all pending changes to subscribers as a single batch.
+     * Blocks while any subscriber's buffer is full. Concurrent flushes deliver their batches in the order
+     * the changes were taken, so a DELETE never overtakes the CREATE before it.
+     */
+    public void flush() {
+        synchronized (submitLock) {
+            List<EmployeeChange> batch;
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = List.copyOf(pending.values());
+                pending.clear();
+            }
+            publisher.submit(batch);
+        }
+    }
+
+    /**
+     * Returns the number of employees with changes that have not been flushed yet.
+     *
+     * @return The number of pending changes.
+     */
+    public int pendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Flushes any pending changes and completes all subscribers.
+     */
+    @Override
+    public void close() {
+        flush();
+        publisher.close();
+    }
+}
+
+/**
+ * A single coalesced change to an employee, as delivered by `EmployeeChangeFeed`.
+ * Holds the employee itself rather than a copy, so subscribers read the latest state.
+ */
+class EmployeeChange {
+
+    /**
+     * The kind of change made to an employee.
+     */
+    public enum Type { CREATE, UPDATE, DELETE }
+
+    private final Type type;
+    private final Employee employee;
+    private final List<String> fields;
+
+    /**
+     * Constructs a change event.
+     *
+     * @param type The kind of change.
+     * @param employee The employee that changed.
+     * @param field The name of the changed field, or null if no single field applies.
+     */
+    public EmployeeChange(Type type, Employee employee, String field) {
+        this(type, employee, field == null ? List.of() : List.of(field));
+    }
+
+    private EmployeeChange(Type type, Employee employee, List<String> fields) {
+        this.type = type;
+        this.employee = employee;
+        this.fields = fields;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    public int getEmployeeNumber() {
+        return employee.getEmployeeNumber();
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Returns a copy of this change with `field` added to its list of changed fields.
+     *
+     * @param field The field to add, or null to leave the fields unchanged.
+     * @return The merged change.
+     */
+    EmployeeChange merge(String field) {
+        if (field == null || fields.contains(field)) {
+            return this;
+        }
+        List<String> merged = new ArrayList<>(fields);
+        merged.add(field);
+        return new EmployeeChange(type, employee, List.copyOf(merged));
+    }
+
+    @Override
+    public String toString() {
+        return type + " Id:" + employee.getEmployeeNumber() + (fields.isEmpty() ? "" : " " + fields);
+    }
+}
@@ -0,0 +1,178 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class that contains unit tests for EmployeeChangeFeed. Each test publishes changes and checks
+ * the batches a subscriber receives.
+ */
+class EmployeeChangeFeedTest {
+
+    /**
+     * A subscriber that records every batch and can hold back its demand to fill the feed's buffer.
+     */
+    private static class RecordingSubscriber implements Flow.Subscriber<List<EmployeeChange>> {
+        final List<List<EmployeeChange>> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+        private final long initialDemand;
+
+        RecordingSubscriber(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription.set(subscription);
+            if (initialDemand > 0) {
+                subscription.request(initialDemand);
+            }
+        }
+
+        public void onNext(List<EmployeeChange> batch) {
+            batches.add(batch);
+        }
+
+        public void onError(Throwable error) {
+            completed.countDown();
+        }
+
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+
+    /**
+     * Tests that changes to the same employee are coalesced into one event per employee:
+     * updates merge their fields into a pending create, and a create followed by a delete cancels out.
+     */
+    @Test
+    void testCoalescing() throws InterruptedException {
+        EmployeeChangeFeed feed = new EmployeeChangeFeed(Runnable::run, 100, 4);
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        feed.subscribe(subscriber);
+        HourlyEmployee created = new HourlyEmployee("Chris", "Evans", 20);
+        HourlyEmployee updated = new HourlyEmployee("Alice", "Brown", 25);
+        HourlyEmployee cancelled = new HourlyEmployee("Bob", "Smith", 30);
+        HourlyEmployee deleted = new HourlyEmployee("Eve", "Jones", 35);
+
+        feed.publish(EmployeeChange.Type.CREATE, created, null);
+        feed.publish(EmployeeChange.Type.UPDATE, created, "hours");
+        feed.publish(EmployeeChange.Type.UPDATE, updated, "hours");
+        feed.publish(EmployeeChange.Type.UPDATE, updated, "rate");
+        feed.publish(EmployeeChange.Type.UPDATE, updated, "hours");
+        feed.publish(EmployeeChange.Type.CREATE, cancelled, null);
+        feed.publish(EmployeeChange.Type.DELETE, cancelled, null);
+        feed.publish(EmployeeChange.Type.UPDATE, deleted, "rate");
+        feed.publish(EmployeeChange.Type.DELETE, deleted, null);
+        assertEquals(3, feed.pendingCount());
+        feed.close();
+        subscriber.completed.await(5, TimeUnit.SECONDS);
+
+        assertEquals(1, subscriber.batches.size());
+        List<EmployeeChange> batch = subscriber.batches.get(0);
+        assertEquals(3, batch.size());
+        assertSame(created, batch.get(0).getEmployee());
+        assertEquals(EmployeeChange.Type.CREATE, batch.get(0).getType());
+        assertEquals(List.of("hours"), batch.get(0).getFields());
+        assertEquals(EmployeeChange.Type.UPDATE, batch.get(1).getType());
+        assertEquals(List.of("hours", "rate"), batch.get(1).getFields());
+        assertSame(deleted, batch.get(2).getEmployee());
+        assertEquals(EmployeeChange.Type.DELETE, batch.get(2).getType());
+    }
+
+    /**
+     * Tests that an update to an employee with a pending delete, such as a setter called right after termination,
+     * does not hide the delete, and that a create after the delete replaces it.
+     */
+    @Test
+    void testUpdateAfterDeleteKeepsDelete() throws InterruptedException {
+        EmployeeChangeFeed feed = new EmployeeChangeFeed(Runnable::run, 100, 4);
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        feed.subscribe(subscriber);
+        SalariedEmployee terminated = new SalariedEmployee("Alice", "Brown", 50000);
+        SalariedEmployee rehired = new SalariedEmployee("Bob", "Smith", 60000);
+
+        feed.publish(EmployeeChange.Type.DELETE, terminated, null);
+        feed.publish(EmployeeChange.Type.UPDATE, terminated, "salary");
+        feed.publish(EmployeeChange.Type.DELETE, rehired, null);
+        feed.publish(EmployeeChange.Type.UPDATE, rehired, "salary");
+        feed.publish(EmployeeChange.Type.CREATE, rehired, null);
+        feed.close();
+        subscriber.completed.await(5, TimeUnit.SECONDS);
+
+        List<EmployeeChange> batch = subscriber.batches.get(0);
+        assertEquals(2, batch.size());
+        assertSame(terminated, batch.get(0).getEmployee());
+        assertEquals(EmployeeChange.Type.DELETE, batch.get(0).getType());
+        assertSame(rehired, batch.get(1).getEmployee());
+        assertEquals(EmployeeChange.Type.CREATE, batch.get(1).getType());
+    }
+
+    /**
+     * Tests that `flush` blocks while a subscriber that has stopped requesting has a full buffer,
+     * and resumes once it requests more, with every batch delivered in order.
+     */
+    @Test
+    void testBackpressure() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        EmployeeChangeFeed feed = new EmployeeChangeFeed(executor, 1, 1);
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        feed.subscribe(subscriber);
+        HourlyEmployee first = new HourlyEmployee("Chris", "Evans", 20);
+        HourlyEmployee second = new HourlyEmployee("Alice", "Brown", 25);
+        feed.publish(EmployeeChange.Type.UPDATE, first, "hours");
+
+        Thread writer = new Thread(() -> feed.publish(EmployeeChange.Type.UPDATE, second, "hours"));
+        writer.start();
+        writer.join(300);
+        assertTrue(writer.isAlive());
+        assertTrue(subscriber.batches.isEmpty());
+
+        subscriber.subscription.get().request(Long.MAX_VALUE);
+        writer.join(5000);
+        assertFalse(writer.isAlive());
+        feed.close();
+        subscriber.completed.await(5, TimeUnit.SECONDS);
+        assertEquals(2, subscriber.batches.size());
+        assertSame(first, subscriber.batches.get(0).get(0).getEmployee());
+        assertSame(second, subscriber.batches.get(1).get(0).getEmployee());
+        executor.shutdown();
+    }
+
+    /**
+     * Tests that constructing an employee publishes nothing, and that adding them to a roster
+     * publishes a create once they are fully built.
+     */
+    @Test
+    void testCreatePublishedWhenAddedToRoster() throws InterruptedException {
+        Roster roster = new Roster(new GeneratedRosterSource(0, 1));
+        roster.employees();
+        EmployeeChangeFeed feed = new EmployeeChangeFeed(Runnable::run, 1, 4);
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        feed.subscribe(subscriber);
+        Employee.setChangeFeed(feed);
+        try {
+            CommissionEmployee emp = new CommissionEmployee("Chris", "Evans", 48000, new float[][]{{10}, {1}});
+            assertEquals(0, feed.pendingCount());
+            assertTrue(subscriber.batches.isEmpty());
+            roster.add(emp);
+            feed.close();
+            subscriber.completed.await(5, TimeUnit.SECONDS);
+            assertEquals(1, subscriber.batches.size());
+            EmployeeChange change = subscriber.batches.get(0).get(0);
+            assertEquals(EmployeeChange.Type.CREATE, change.getType());
+            assertNotNull(((CommissionEmployee) change.getEmployee()).getCommissionSchedule());
+        } finally {
+            Employee.setChangeFeed(null);
+        }
+    }
+}
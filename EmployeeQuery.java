@@ -0,0 +1,546 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+
+/**
+ * An ad-hoc filter over a list of `Employee` objects, built either through the fluent methods or parsed
+ * from a small text syntax such as "payType = hourly and rate > 30 and lastName ^= H limit 10".
+ * Each condition is compiled into a predicate specialised for its field and operator. Terminated employees never match.
+ * When the query runs, the planner does three things:
+ * - narrows the scan with a binary search when the list is sorted by ID and the query bounds the ID
+ * - evaluates the most selective condition first, estimated from a sample of the list
+ * - stops early once a LIMIT is reached, or uses a parallel scan for large unlimited queries
+ */
+public class EmployeeQuery {
+
+    /**
+     * The employee fields a query can filter on. Numeric fields that do not apply to an employee's
+     * pay type (for example the rate of a salaried employee) never match.
+     */
+    public enum Field {
+        ID, PAY_TYPE, FIRST_NAME, LAST_NAME, PAYCHECK, SALARY, RATE, HOURS, UNITS_SOLD
+    }
+
+    /**
+     * The comparison operators a condition can use. STARTS_WITH only applies to name fields.
+     */
+    public enum Op {
+        EQ("="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">="), STARTS_WITH("^=");
+
+        private final String symbol;
+
+        Op(String symbol) {
+            this.symbol = symbol;
+        }
+
+        static Op fromSymbol(String symbol) {
+            for (Op op : values()) {
+                if (op.symbol.equals(symbol)) {
+                    return op;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operator: " + symbol);
+        }
+    }
+
+    // Lists smaller than this are always scanned sequentially
+    static final int PARALLEL_THRESHOLD = 10_000;
+    // Number of employees sampled to estimate the selectivity of each condition
+    private static final int SAMPLE_SIZE = 256;
+    // "{field} {op} {value}", with the value optionally in single quotes
+    private static final Pattern CONDITION = Pattern.compile("(\\w+)\\s*(!=|<=|>=|\\^=|=|<|>)\\s*(.+)");
+
+    private final List<Condition> conditions = new ArrayList<>();
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * Parses a query of the form "{field} {op} {value} and ... [limit {n}]".
+     * Fields are the `Field` names in camel case (id, payType, firstName, lastName, paycheck, salary,
+     * rate, hours, unitsSold), operators are =, !=, <, <=, >, >= and ^= (starts with), and the bare
+     * keyword "topTier" matches commission employees who reached the top tier of their schedule.
+     * Name comparisons ignore case, and values may be single-quoted so they can contain spaces or keywords.
+     *
+     * @param text The query text.
+     * @return The parsed query.
+     * @throws IllegalArgumentException If the text is not a valid query.
+     */
+    public static EmployeeQuery parse(String text) {
+        EmployeeQuery query = new EmployeeQuery();
+        String body = text.trim();
+        List<String> limitSplit = splitOutsideQuotes(body, "limit");
+        if (limitSplit.size() > 2) {
+            throw new IllegalArgumentException("More than one limit: " + text);
+        }
+        if (limitSplit.size() == 2) {
+            query.limit(Integer.parseInt(limitSplit.get(1).trim()));
+            body = limitSplit.get(0);
+        }
+        for (String clause : splitOutsideQuotes(body, "and")) {
+            clause = clause.trim();
+            if (clause.equalsIgnoreCase("topTier")) {
+                query.atTopCommissionTier();
+                continue;
+            }
+            Matcher matcher = CONDITION.matcher(clause);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid condition: " + clause);
+            }
+            Field field = Field.valueOf(matcher.group(1).replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT));
+            String value = matcher.group(3).replaceAll("^'(.*)'$", "$1");
+            query.where(field, Op.fromSymbol(matcher.group(2)), value);
+        }
+        return query;
+    }
+
+    /**
+     * Splits `text` around each case-insensitive occurrence of `keyword` that stands between whitespace
+     * and is not inside a single-quoted value.
+     */
+    private static List<String> splitOutsideQuotes(String text, String keyword) {
+        List<String> parts = new ArrayList<>();
+        int length = keyword.length();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && Character.isWhitespace(c) && i + length + 1 < text.length()
+                    && text.regionMatches(true, i + 1, keyword, 0, length)
+                    && Character.isWhitespace(text.charAt(i + length + 1))) {
+                parts.add(text.substring(start, i));
+                i += length + 1;
+                start = i;
+            }
+        }
+        parts.add(text.substring(start));
+        return parts;
+    }
+
+    /**
+     * Adds a condition comparing `field` with `value`. Numeric fields parse `value` as a number.
+     *
+     * @param field The field to compare.
+     * @param op The comparison operator.
+     * @param value The value to compare against.
+     * @return This query.
+     */
+    public EmployeeQuery where(Field field, Op op, String value) {
+        boolean textField = field == Field.PAY_TYPE || field == Field.FIRST_NAME || field == Field.LAST_NAME;
+        if (op == Op.STARTS_WITH && field != Field.FIRST_NAME && field != Field.LAST_NAME) {
+            throw new IllegalArgumentException("^= only applies to name fields");
+        }
+        if (textField && op != Op.EQ && op != Op.NE && op != Op.STARTS_WITH) {
+            throw new IllegalArgumentException(op.symbol + " does not apply to " + field);
+        }
+        conditions.add(new Condition(field, op, value, textField ? 0 : Double.parseDouble(value)));
+        return this;
+    }
+
+    /**
+     * Adds a condition comparing a numeric `field` with `value`.
+     *
+     * @param field The numeric field to compare.
+     * @param op The comparison operator.
+     * @param value The value to compare against.
+     * @return This query.
+     */
+    public EmployeeQuery where(Field field, Op op, double value) {
+        return where(field, op, String.valueOf(value));
+    }
+
+    public EmployeeQuery payType(String payType) {
+        return where(Field.PAY_TYPE, Op.EQ, payType);
+    }
+
+    public EmployeeQuery lastNameStartsWith(String prefix) {
+        return where(Field.LAST_NAME, Op.STARTS_WITH, prefix);
+    }
+
+    /**
+     * Restricts the query to employee IDs between `low` and `high`, inclusive.
+     *
+     * @param low The lowest matching ID.
+     * @param high The highest matching ID.
+     * @return This query.
+     */
+    public EmployeeQuery idBetween(int low, int high) {
+        return where(Field.ID, Op.GE, Integer.toString(low)).where(Field.ID, Op.LE, Integer.toString(high));
+    }
+
+    /**
+     * Matches commission employees whose units sold reach the highest threshold in their commission schedule.
+     *
+     * @return This query.
+     */
+    public EmployeeQuery atTopCommissionTier() {
+        conditions.add(new Condition(null, Op.GE, "topTier", 0));
+        return this;
+    }
+
+    /**
+     * Stops the query once `limit` matches have been found.
+     *
+     * @param limit The maximum number of results.
+     * @return This query.
+     */
+    public EmployeeQuery limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Compiles every condition into a single predicate, in the order they were added.
+     *
+     * @return A predicate matching the employees this query selects, ignoring any limit.
+     */
+    public Predicate<Employee> asPredicate() {
+        Predicate<Employee> predicate = combine(compileAll());
+        return e -> !e.isTerminated() && predicate.test(e);
+    }
+
+    /**
+     * Runs the query against `employeeList`, preserving the list's order in the results.
+     *
+     * @param employeeList The employees to filter.
+     * @param sortedByID True if `employeeList` is sorted by ascending employee ID, allowing ID bounds to use binary search.
+     * @return The matching employees, at most `limit` of them.
+     */
+    public List<Employee> run(List<Employee> employeeList, boolean sortedByID) {
+        return plan(employeeList, sortedByID).execute(employeeList);
+    }
+
+    /**
+     * Describes how `run` would execute this query against `employeeList`, for reporting and tuning.
+     *
+     * @param employeeList The employees the query would run against.
+     * @param sortedByID True if `employeeList` is sorted by ascending employee ID.
+     * @return A one-line description of the plan.
+     */
+    public String explain(List<Employee> employeeList, boolean sortedByID) {
+        return plan(employeeList, sortedByID).toString();
+    }
+
+    /**
+     * Chooses the scan range, the condition order and the scan strategy for `employeeList`.
+     */
+    private Plan plan(List<Employee> employeeList, boolean sortedByID) {
+        int from = 0;
+        int to = employeeList.size();
+        boolean indexed = false;
+        if (sortedByID) {
+            long low = Integer.MIN_VALUE;
+            long high = Integer.MAX_VALUE;
+            for (Condition condition : conditions) {
+                if (condition.field == Field.ID) {
+                    long value = (long) Math.ceil(condition.number);
+                    long floor = (long) Math.floor(condition.number);
+                    switch (condition.op) {
+                        case EQ:
+                            low = Math.max(low, value);
+                            high = Math.min(high, floor);
+                            break;
+                        case GE:
+                            low = Math.max(low, value);
+                            break;
+                        case GT:
+                            low = Math.max(low, floor + 1);
+                            break;
+                        case LE:
+                            high = Math.min(high, floor);
+                            break;
+                        case LT:
+                            high = Math.min(high, value - 1);
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+            if (low > Integer.MIN_VALUE || high < Integer.MAX_VALUE) {
+                indexed = true;
+                from = lowerBound(employeeList, low);
+                to = Math.max(from, lowerBound(employeeList, high + 1));
+            }
+        }
+
+        List<Compiled> compiled = compileAll();
+        if (compiled.size() > 1) {
+            List<Employee> sample = sample(employeeList, from, to);
+            for (Compiled c : compiled) {
+                int passed = 0;
+                for (Employee employee : sample) {
+                    if (c.predicate.test(employee)) {
+                        passed++;
+                    }
+                }
+                c.selectivity = sample.isEmpty() ? 1 : (double) passed / sample.size();
+            }
+            // Stable sort, so conditions with equal estimates keep the order they were written in
+            compiled.sort(Comparator.comparingDouble(c -> c.selectivity));
+        }
+
+        boolean parallel = limit == Integer.MAX_VALUE && to - from >= PARALLEL_THRESHOLD;
+        return new Plan(from, to, indexed, parallel, compiled, limit);
+    }
+
+    private List<Compiled> compileAll() {
+        List<Compiled> compiled = new ArrayList<>(conditions.size());
+        for (Condition condition : conditions) {
+            compiled.add(new Compiled(condition, condition.compile()));
+        }
+        return compiled;
+    }
+
+    private static Predicate<Employee> combine(List<Compiled> compiled) {
+        // Specialise the common small cases to avoid a loop over a predicate list per employee
+        switch (compiled.size()) {
+            case 0:
+                return e -> true;
+            case 1:
+                return compiled.get(0).predicate;
+            case 2: {
+                Predicate<Employee> first = compiled.get(0).predicate;
+                Predicate<Employee> second = compiled.get(1).predicate;
+                return e -> first.test(e) && second.test(e);
+            }
+            default: {
+                @SuppressWarnings("unchecked")
+                Predicate<Employee>[] all = compiled.stream().map(c -> c.predicate).toArray(Predicate[]::new);
+                return e -> {
+                    for (Predicate<Employee> p : all) {
+                        if (!p.test(e)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                };
+            }
+        }
+    }
+
+    /**
+     * Returns up to `SAMPLE_SIZE` employees spread evenly over `[from, to)`.
+     */
+    private static List<Employee> sample(List<Employee> employeeList, int from, int to) {
+        int n = to - from;
+        int step = Math.max(1, n / SAMPLE_SIZE);
+        List<Employee> sample = new ArrayList<>(Math.min(n, SAMPLE_SIZE));
+        for (int i = from; i < to && sample.size() < SAMPLE_SIZE; i += step) {
+            sample.add(employeeList.get(i));
+        }
+        return sample;
+    }
+
+    /**
+     * Returns the index of the first employee whose ID is at least `id` in a list sorted by ID.
+     */
+    private static int lowerBound(List<Employee> employeeList, long id) {
+        int low = 0;
+        int high = employeeList.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (employeeList.get(mid).getEmployeeNumber() < id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public String toString() {
+        String text = conditions.stream().map(Condition::toString).collect(Collectors.joining(" and "));
+        return limit == Integer.MAX_VALUE ? text : text + " limit " + limit;
+    }
+
+    /**
+     * A single field/operator/value condition as written by the caller.
+     */
+    private static final class Condition {
+        final Field field;
+        final Op op;
+        final String text;
+        final double number;
+
+        Condition(Field field, Op op, String text, double number) {
+            this.field = field;
+            this.op = op;
+            this.text = text;
+            this.number = number;
+        }
+
+        /**
+         * Builds a predicate for this condition with the field access and operator resolved up front.
+         */
+        Predicate<Employee> compile() {
+            if (field == null) {
+                return e -> {
+                    if (!(e instanceof CommissionEmployee commissionEmployee)) {
+                        return false;
+                    }
+                    float[][] schedule = commissionEmployee.getCommissionSchedule();
+                    if (schedule == null || schedule.length == 0 || schedule[0] == null) {
+                        return false;
+                    }
+                    float[] thresholds = schedule[0];
+                    return thresholds.length > 0 && commissionEmployee.getUnitsSold() >= thresholds[thresholds.length - 1];
+                };
+            }
+            switch (field) {
+                case PAY_TYPE: {
+                    String payType = text.toLowerCase(Locale.ROOT);
+                    return op == Op.EQ ? e -> payType.equals(e.getPayType()) : e -> !payType.equals(e.getPayType());
+                }
+                case FIRST_NAME:
+                    return compileName(Employee::getFirstNameId);
+                case LAST_NAME:
+                    return compileName(Employee::getLastNameId);
+                default:
+                    return compileNumber(extractor(field));
+            }
+        }
+
+        /**
+         * Compiles a name condition into a test on pooled name IDs, so no String comparison happens per employee.
+         * Every name operator matches case-insensitively. The result for each name already pooled is worked out
+         * up front, and names pooled after compilation are tested against their lower-case form when first seen.
+         */
+        private Predicate<Employee> compileName(ToIntFunction<Employee> nameId) {
+            NamePool names = NamePool.shared();
+            String lower = text.toLowerCase(Locale.ROOT);
+            Predicate<String> test = op == Op.STARTS_WITH ? name -> name.startsWith(lower) : lower::equals;
+            boolean negate = op == Op.NE;
+            int known = names.size();
+            boolean[] matches = new boolean[known];
+            for (int id = 0; id < known; id++) {
+                matches[id] = test.test(names.lowerName(id));
+            }
+            return e -> {
+                int id = nameId.applyAsInt(e);
+                boolean match = id >= 0 && (id < known ? matches[id] : test.test(names.lowerName(id)));
+                return match != negate;
+            };
+        }
+
+        private Predicate<Employee> compileNumber(ToDoubleFunction<Employee> value) {
+            double v = number;
+            // Fields that do not apply to the employee read as NaN, which fails every comparison
+            switch (op) {
+                case EQ: return e -> value.applyAsDouble(e) == v;
+                case NE: return e -> { double x = value.applyAsDouble(e); return x == x && x != v; };
+                case LT: return e -> value.applyAsDouble(e) < v;
+                case LE: return e -> value.applyAsDouble(e) <= v;
+                case GT: return e -> value.applyAsDouble(e) > v;
+                default: return e -> value.applyAsDouble(e) >= v;
+            }
+        }
+
+        private static ToDoubleFunction<Employee> extractor(Field field) {
+            switch (field) {
+                case ID:
+                    return Employee::getEmployeeNumber;
+                case PAYCHECK:
+                    return Employee::getPaycheck;
+                case SALARY:
+                    return e -> e instanceof SalariedEmployee s ? s.getSalary() : Double.NaN;
+                case RATE:
+                    return e -> e instanceof HourlyEmployee h ? h.getRate() : Double.NaN;
+                case HOURS:
+                    return e -> e instanceof HourlyEmployee h ? h.getHours() : Double.NaN;
+                case UNITS_SOLD:
+                    return e -> e instanceof CommissionEmployee c ? c.getUnitsSold() : Double.NaN;
+                default:
+                    throw new IllegalArgumentException("Not a numeric field: " + field);
+            }
+        }
+
+        @Override
+        public String toString() {
+            if (field == null) {
+                return "topTier";
+            }
+            String name = field.name().toLowerCase(Locale.ROOT);
+            StringBuilder camel = new StringBuilder();
+            for (String part : name.split("_")) {
+                camel.append(camel.length() == 0 ? part : Character.toUpperCase(part.charAt(0)) + part.substring(1));
+            }
+            return camel + " " + op.symbol + " " + text;
+        }
+    }
+
+    /**
+     * A compiled condition together with its estimated pass rate.
+     */
+    private static final class Compiled {
+        final Condition condition;
+        final Predicate<Employee> predicate;
+        double selectivity = 1;
+
+        Compiled(Condition condition, Predicate<Employee> predicate) {
+            this.condition = condition;
+            this.predicate = predicate;
+        }
+    }
+
+    /**
+     * The chosen execution strategy for one run of a query.
+     */
+    private static final class Plan {
+        final int from;
+        final int to;
+        final boolean indexed;
+        final boolean parallel;
+        final List<Compiled> order;
+        final int limit;
+
+        Plan(int from, int to, boolean indexed, boolean parallel, List<Compiled> order, int limit) {
+            this.from = from;
+            this.to = to;
+            this.indexed = indexed;
+            this.parallel = parallel;
+            this.order = order;
+            this.limit = limit;
+        }
+
+        List<Employee> execute(List<Employee> employeeList) {
+            Predicate<Employee> conditions = combine(order);
+            Predicate<Employee> predicate = e -> !e.isTerminated() && conditions.test(e);
+            List<Employee> range = employeeList.subList(from, to);
+            if (parallel) {
+                return range.parallelStream().filter(predicate).collect(Collectors.toList());
+            }
+            List<Employee> results = new ArrayList<>();
+            for (int i = 0; i < range.size() && results.size() < limit; i++) {
+                Employee employee = range.get(i);
+                if (predicate.test(employee)) {
+                    results.add(employee);
+                }
+            }
+            return results;
+        }
+
+        @Override
+        public String toString() {
+            String scan = (indexed ? "ID index range [" + from + ", " + to + ")" : "full scan of " + (to - from))
+                    + (parallel ? ", parallel" : ", sequential");
+            String filters = order.stream()
+                    .map(c -> c.condition + String.format(" (~%.0f%%)", c.selectivity * 100))
+                    .collect(Collectors.joining(", "));
+            return scan + "; filters: " + (filters.isEmpty() ? "none" : filters)
+                    + (limit == Integer.MAX_VALUE ? "" : "; stop after " + limit);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class that contains unit tests for EmployeeQuery. Each test runs a query against a generated roster
+ * and compares the results with a plain filter over the same employees.
+ */
+class EmployeeQueryTest {
+
+    private static List<Employee> roster(int size, long seed) {
+        return new Roster(new GeneratedRosterSource(size, seed)).employees();
+    }
+
+    private static List<Employee> filter(List<Employee> employees, Predicate<Employee> predicate) {
+        return employees.stream().filter(predicate).collect(Collectors.toList());
+    }
+
+    /**
+     * Tests parsing conditions, the topTier keyword and a limit, including quoted values that contain
+     * the keywords "and" and "limit", and rejecting malformed queries.
+     */
+    @Test
+    void testParse() {
+        EmployeeQuery query = EmployeeQuery.parse("payType = hourly AND rate > 30 and lastName ^= H LIMIT 10");
+        assertEquals("payType = hourly and rate > 30 and lastName ^= H limit 10", query.toString());
+        assertEquals("topTier and unitsSold >= 100", EmployeeQuery.parse("topTier and unitsSold >= 100").toString());
+
+        EmployeeQuery quoted = EmployeeQuery.parse("lastName = 'Sand and Limit Co' and firstName != 'x limit 2'");
+        assertEquals("lastName = Sand and Limit Co and firstName != x limit 2", quoted.toString());
+        SalariedEmployee emp = new SalariedEmployee("Ann", "Sand and Limit Co", 50000);
+        assertTrue(quoted.asPredicate().test(emp));
+
+        assertThrows(IllegalArgumentException.class, () -> EmployeeQuery.parse("salary ~ 5"));
+        assertThrows(IllegalArgumentException.class, () -> EmployeeQuery.parse("shoeSize = 9"));
+        assertThrows(IllegalArgumentException.class, () -> EmployeeQuery.parse("salary ^= 5"));
+        assertThrows(IllegalArgumentException.class, () -> EmployeeQuery.parse("lastName < Hall"));
+        assertThrows(IllegalArgumentException.class, () -> EmployeeQuery.parse("salary > 5 limit 2 limit 3"));
+    }
+
+    /**
+     * Tests that =, != and ^= on names all ignore case, and that names pooled after the predicate
+     * was compiled still match.
+     */
+    @Test
+    void testNameMatching() {
+        SalariedEmployee hall = new SalariedEmployee("Grace", "Hall", 50000);
+        assertTrue(EmployeeQuery.parse("lastName = hall").asPredicate().test(hall));
+        assertTrue(EmployeeQuery.parse("lastName = HALL").asPredicate().test(hall));
+        assertTrue(EmployeeQuery.parse("lastName ^= ha").asPredicate().test(hall));
+        assertFalse(EmployeeQuery.parse("lastName != Hall").asPredicate().test(hall));
+        assertTrue(EmployeeQuery.parse("firstName != Hall").asPredicate().test(hall));
+
+        Predicate<Employee> equal = EmployeeQuery.parse("lastName = Quenneville-Oduya").asPredicate();
+        Predicate<Employee> notEqual = EmployeeQuery.parse("lastName != Quenneville-Oduya").asPredicate();
+        Predicate<Employee> prefix = EmployeeQuery.parse("lastName ^= quenn").asPredicate();
+        SalariedEmployee later = new SalariedEmployee("Ida", "Quenneville-Oduya", 50000);
+        assertTrue(equal.test(later));
+        assertFalse(notEqual.test(later));
+        assertTrue(prefix.test(later));
+        assertFalse(equal.test(hall));
+        assertTrue(notEqual.test(hall));
+    }
+
+    /**
+     * Tests that an ID range narrows a sorted list to an index range, and that the results match a plain filter
+     * whether or not the list is known to be sorted.
+     */
+    @Test
+    void testIdRangePlan() {
+        List<Employee> employees = roster(2000, 31);
+        int low = employees.get(500).getEmployeeNumber();
+        int high = employees.get(899).getEmployeeNumber();
+        EmployeeQuery query = new EmployeeQuery().idBetween(low, high).payType("salary");
+
+        assertTrue(query.explain(employees, true).startsWith("ID index range [500, 900)"));
+        assertTrue(query.explain(employees, false).startsWith("full scan of 2000"));
+        List<Employee> expected = filter(employees, e -> e.getEmployeeNumber() >= low
+                && e.getEmployeeNumber() <= high && e.getPayType().equals("salary"));
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, query.run(employees, true));
+        assertEquals(expected, query.run(employees, false));
+
+        EmployeeQuery strict = EmployeeQuery.parse("id > " + low + " and id < " + high);
+        assertTrue(strict.explain(employees, true).startsWith("ID index range [501, 899)"));
+        assertEquals(employees.subList(501, 899), strict.run(employees, true));
+        assertTrue(EmployeeQuery.parse("id > " + high + " and id < " + low).run(employees, true).isEmpty());
+    }
+
+    /**
+     * Tests that a limit returns the first matches in list order, that an unlimited query over a large list
+     * runs in parallel and keeps list order, and that numeric fields that do not apply never match.
+     */
+    @Test
+    void testLimitAndParallelScan() {
+        List<Employee> employees = roster(EmployeeQuery.PARALLEL_THRESHOLD + 500, 32);
+        List<Employee> hourly = filter(employees, e -> e instanceof HourlyEmployee h && h.getRate() > 30);
+
+        EmployeeQuery limited = EmployeeQuery.parse("rate > 30 limit 5");
+        assertTrue(limited.explain(employees, true).endsWith("stop after 5"));
+        assertEquals(hourly.subList(0, 5), limited.run(employees, true));
+        assertTrue(EmployeeQuery.parse("rate > 30 limit 0").run(employees, true).isEmpty());
+
+        EmployeeQuery unlimited = EmployeeQuery.parse("rate > 30");
+        assertTrue(unlimited.explain(employees, false).contains("parallel"));
+        assertEquals(hourly, unlimited.run(employees, false));
+        assertEquals(filter(employees, e -> e instanceof HourlyEmployee), EmployeeQuery.parse("rate != 0").run(employees, false));
+        assertThrows(IllegalArgumentException.class, () -> new EmployeeQuery().limit(-1));
+    }
+
+    /**
+     * Tests the topTier keyword, including commission employees with no schedule.
+     */
+    @Test
+    void testTopTier() {
+        CommissionEmployee top = new CommissionEmployee("Eric", "Wilson", 65000, new float[][]{{10, 100}, {.5f, 1f}});
+        top.setUnitsSold(100);
+        CommissionEmployee below = new CommissionEmployee("Emma", "Hughes", 65000, new float[][]{{10, 100}, {.5f, 1f}});
+        below.setUnitsSold(99);
+        CommissionEmployee unscheduled = new CommissionEmployee("Noah", "Davis", 65000, new float[][]{{10}, {1}});
+        unscheduled.setCommissionSchedule(null);
+        Predicate<Employee> topTier = EmployeeQuery.parse("topTier").asPredicate();
+
+        assertTrue(topTier.test(top));
+        assertFalse(topTier.test(below));
+        assertFalse(topTier.test(unscheduled));
+        assertFalse(topTier.test(new SalariedEmployee("Ava", "Reed", 96000)));
+    }
+}
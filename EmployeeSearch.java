@@ -5,6 +5,8 @@ import java.util.List;
 /**
  * Utility class providing search methods for a list of `Employee` objects.
  * Includes sequential and binary search algorithms for finding employees by last name or ID.
+ * Terminated employees are never returned. Search a `Roster` through `Roster.read` to see either none or all
+ * of a bulk update.
  */
 public class EmployeeSearch {
 
@@ -18,13 +20,17 @@ public class EmployeeSearch {
      */
     public static List<Employee> sequentialSearchByLastName(List<Employee> employeeList, String lastName) {
         List<Employee> matchingEmployees = new ArrayList<>();
+        NamePool names = NamePool.shared();
 
         for (Employee employee : employeeList) {
-            int comparison = employee.getLastName().toLowerCase().compareTo(lastName);
+            // Lower-case names are computed once per distinct name by the pool
+            int comparison = names.lowerName(employee.getLastNameId()).compareTo(lastName);
 
             if (comparison == 0) {
-                // Found a matching last name, add to the list
-                matchingEmployees.add(employee);
+                // Found a matching last name, add to the list unless it is a tombstone
+                if (!employee.isTerminated()) {
+                    matchingEmployees.add(employee);
+                }
             } else if (comparison > 0) {
                 // Since the list is sorted, we can stop once we pass the target last name
                 break;
@@ -40,7 +46,7 @@ public class EmployeeSearch {
      *
      * @param employeeList The list of employees, sorted by employee ID, to search through.
      * @param targetID The employee ID to search for.
-     * @return The employee with the specified ID, or null if no employee with the ID is found.
+     * @return The employee with the specified ID, or null if no employee with the ID is found or they are terminated.
      */
     public static Employee binarySearchByID(List<Employee> employeeList, int targetID) {
         int low = 0;
@@ -51,7 +57,7 @@ public class EmployeeSearch {
             Employee midEmployee = employeeList.get(mid);
 
             if (midEmployee.getEmployeeNumber() == targetID) {
-                return midEmployee; // Target ID found
+                return midEmployee.isTerminated() ? null : midEmployee; // Target ID found
             } else if (midEmployee.getEmployeeNumber() < targetID) {
                 low = mid + 1; // Search in the right half
             } else {
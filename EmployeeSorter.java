@@ -1,13 +1,281 @@
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 
 /**
  * Utility class providing sorting methods for a list of `Employee` objects.
  * Contains implementations for quicksort and selection sort algorithms, allowing
  * sorting by various criteria including employee ID, last name, and paycheck amount.
+ * Also provides stable LSD radix sorts for IDs and pooled name keys and a stable parallel merge sort
+ * for arbitrary comparators, with `sort` choosing between them by key type and input size.
  */
 public class EmployeeSorter {
 
+    // Below this size, insertion sort beats the setup cost of the other sorts
+    static final int INSERTION_THRESHOLD = 32;
+    // Below this size, a single-threaded merge sort beats forking tasks
+    static final int PARALLEL_THRESHOLD = 8192;
+    // Radix sorts work on 11-bit digits, so a 64-bit key needs at most 6 passes
+    private static final int RADIX_BITS = 11;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    /**
+     * Sorts `employeeList` by employee ID or by last name then first name, choosing the algorithm from the input size.
+     * Small lists use insertion sort and larger ones use an LSD radix sort on integer keys.
+     * The sort is stable, so employees with equal keys keep their relative order.
+     *
+     * @param employeeList The list of employees to be sorted.
+     * @param sortByID If true, sorts the list by employee ID. If false, sorts by last name (first name as a tiebreaker).
+     */
+    public static void sort(List<Employee> employeeList, boolean sortByID) {
+        if (employeeList.size() < INSERTION_THRESHOLD) {
+            insertionSort(employeeList, sortByID ? BY_ID : BY_NAME);
+        } else if (sortByID) {
+            radixSortByID(employeeList);
+        } else {
+            radixSortByName(employeeList);
+        }
+    }
+
+    /**
+     * Sorts `employeeList` with `comparator`, choosing the algorithm from the input size.
+     * Small lists use insertion sort and larger ones use a parallel merge sort.
+     * The sort is stable, so sorting by first name and then by last name orders by last name, then first name.
+     *
+     * @param employeeList The list of employees to be sorted.
+     * @param comparator The ordering to sort by.
+     */
+    public static void sort(List<Employee> employeeList, Comparator<? super Employee> comparator) {
+        if (employeeList.size() < INSERTION_THRESHOLD) {
+            insertionSort(employeeList, comparator);
+        } else {
+            parallelMergeSort(employeeList, comparator);
+        }
+    }
+
+    /**
+     * Orders employees by ascending employee ID.
+     */
+    static final Comparator<Employee> BY_ID = Comparator.comparingInt(Employee::getEmployeeNumber);
+
+    /**
+     * Orders employees by last name, then first name, comparing pooled name IDs.
+     */
+    static final Comparator<Employee> BY_NAME = (e1, e2) -> {
+        NamePool names = NamePool.shared();
+        int lastNameComparison = names.compare(e1.getLastNameId(), e2.getLastNameId());
+        return lastNameComparison != 0 ? lastNameComparison : names.compare(e1.getFirstNameId(), e2.getFirstNameId());
+    };
+
+    /**
+     * Sorts `employeeList` by employee ID using a stable LSD radix sort in O(n) time.
+     * IDs are offset by the smallest ID, so passes over digits that are zero for every key are skipped;
+     * a roster of dense IDs below two million needs just two passes.
+     *
+     * @param employeeList The list of employees to be sorted.
+     */
+    public static void radixSortByID(List<Employee> employeeList) {
+        Employee[] employees = employeeList.toArray(new Employee[0]);
+        int min = Integer.MAX_VALUE;
+        for (Employee employee : employees) {
+            min = Math.min(min, employee.getEmployeeNumber());
+        }
+        long[] keys = new long[employees.length];
+        for (int i = 0; i < employees.length; i++) {
+            keys[i] = (long) employees[i].getEmployeeNumber() - min;
+        }
+        radixSort(employees, keys);
+        writeBack(employeeList, employees);
+    }
+
+    /**
+     * Sorts `employeeList` by last name, then first name, using a stable LSD radix sort in O(n) time.
+     * Instead of radix-sorting the characters of each name, it sorts on the names' pooled collation keys,
+     * which already encode `String.compareTo` order as small integers.
+     *
+     * @param employeeList The list of employees to be sorted.
+     */
+    public static void radixSortByName(List<Employee> employeeList) {
+        Employee[] employees = employeeList.toArray(new Employee[0]);
+        // Read every name ID first, so the snapshot is taken after the newest name and covers all of them
+        int[] lastIds = new int[employees.length];
+        int[] firstIds = new int[employees.length];
+        int maxId = -1;
+        for (int i = 0; i < employees.length; i++) {
+            lastIds[i] = employees[i].getLastNameId();
+            firstIds[i] = employees[i].getFirstNameId();
+            maxId = Math.max(maxId, Math.max(lastIds[i], firstIds[i]));
+        }
+        int[] collation = NamePool.shared().collationKeys(maxId);
+        long[] keys = new long[employees.length];
+        for (int i = 0; i < employees.length; i++) {
+            // Null names (ID -1) get key 0 so they sort first; every other key is shifted up by one
+            long last = lastIds[i] < 0 ? 0 : collation[lastIds[i]] + 1;
+            long first = firstIds[i] < 0 ? 0 : collation[firstIds[i]] + 1;
+            keys[i] = last << 32 | first;
+        }
+        radixSort(employees, keys);
+        writeBack(employeeList, employees);
+    }
+
+    /**
+     * Sorts `employees` by the non-negative `keys` in place with a stable LSD radix sort.
+     * Both arrays are permuted together.
+     *
+     * @param employees The employees to sort.
+     * @param keys The sort key of each employee.
+     */
+    private static void radixSort(Employee[] employees, long[] keys) {
+        int n = employees.length;
+        long max = 0;
+        for (long key : keys) {
+            max = Math.max(max, key);
+        }
+        Employee[] employeeBuffer = new Employee[n];
+        long[] keyBuffer = new long[n];
+        int[] counts = new int[RADIX + 1];
+
+        for (int shift = 0; shift < 64 && (max >>> shift) != 0; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (long key : keys) {
+                counts[(int) (key >>> shift & (RADIX - 1)) + 1]++;
+            }
+            if (counts[1] == n) {
+                // Every key has a zero digit here, so this pass would not move anything
+                continue;
+            }
+            for (int d = 0; d < RADIX; d++) {
+                counts[d + 1] += counts[d];
+            }
+            for (int i = 0; i < n; i++) {
+                int position = counts[(int) (keys[i] >>> shift & (RADIX - 1))]++;
+                employeeBuffer[position] = employees[i];
+                keyBuffer[position] = keys[i];
+            }
+            System.arraycopy(employeeBuffer, 0, employees, 0, n);
+            System.arraycopy(keyBuffer, 0, keys, 0, n);
+        }
+    }
+
+    /**
+     * Sorts `employeeList` with `comparator` using a stable merge sort whose halves are sorted in parallel
+     * on the common fork/join pool. Ranges smaller than `PARALLEL_THRESHOLD` are sorted on the calling thread.
+     *
+     * @param employeeList The list of employees to be sorted.
+     * @param comparator The ordering to sort by.
+     */
+    public static void parallelMergeSort(List<Employee> employeeList, Comparator<? super Employee> comparator) {
+        Employee[] employees = employeeList.toArray(new Employee[0]);
+        Employee[] buffer = new Employee[employees.length];
+        ForkJoinPool.commonPool().invoke(new MergeSortTask(employees, buffer, 0, employees.length, comparator));
+        writeBack(employeeList, employees);
+    }
+
+    /**
+     * Fork/join task that merge sorts `employees[from, to)`, using the same range of `buffer` as scratch space.
+     */
+    private static class MergeSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Employee[] employees;
+        private final Employee[] buffer;
+        private final int from;
+        private final int to;
+        private final Comparator<? super Employee> comparator;
+
+        MergeSortTask(Employee[] employees, Employee[] buffer, int from, int to, Comparator<? super Employee> comparator) {
+            this.employees = employees;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                mergeSort(employees, buffer, from, to, comparator);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new MergeSortTask(employees, buffer, from, mid, comparator),
+                    new MergeSortTask(employees, buffer, mid, to, comparator));
+            merge(employees, buffer, from, mid, to, comparator);
+        }
+    }
+
+    /**
+     * Sequential stable merge sort of `employees[from, to)`, switching to insertion sort for small ranges.
+     */
+    private static void mergeSort(Employee[] employees, Employee[] buffer, int from, int to,
+                                  Comparator<? super Employee> comparator) {
+        if (to - from < INSERTION_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                Employee current = employees[i];
+                int j = i - 1;
+                while (j >= from && comparator.compare(employees[j], current) > 0) {
+                    employees[j + 1] = employees[j];
+                    j--;
+                }
+                employees[j + 1] = current;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(employees, buffer, from, mid, comparator);
+        mergeSort(employees, buffer, mid, to, comparator);
+        merge(employees, buffer, from, mid, to, comparator);
+    }
+
+    /**
+     * Merges the sorted ranges `employees[from, mid)` and `employees[mid, to)`.
+     * Ties take the element from the left range, which keeps the sort stable.
+     */
+    private static void merge(Employee[] employees, Employee[] buffer, int from, int mid, int to,
+                              Comparator<? super Employee> comparator) {
+        if (comparator.compare(employees[mid - 1], employees[mid]) <= 0) {
+            // The halves are already in order
+            return;
+        }
+        System.arraycopy(employees, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && comparator.compare(buffer[left], buffer[right]) <= 0)) {
+                employees[i] = buffer[left++];
+            } else {
+                employees[i] = buffer[right++];
+            }
+        }
+    }
+
+    /**
+     * Sorts `employeeList` in place with a stable insertion sort. Used for small lists.
+     */
+    private static void insertionSort(List<Employee> employeeList, Comparator<? super Employee> comparator) {
+        for (int i = 1; i < employeeList.size(); i++) {
+            Employee current = employeeList.get(i);
+            int j = i - 1;
+            while (j >= 0 && comparator.compare(employeeList.get(j), current) > 0) {
+                employeeList.set(j + 1, employeeList.get(j));
+                j--;
+            }
+            employeeList.set(j + 1, current);
+        }
+    }
+
+    /**
+     * Copies the sorted array back into `employeeList`.
+     */
+    private static void writeBack(List<Employee> employeeList, Employee[] employees) {
+        for (int i = 0; i < employees.length; i++) {
+            employeeList.set(i, employees[i]);
+        }
+    }
+
     /**
      * Sorts the `employeeList` using the quicksort algorithm based on the specified criterion.
      *
@@ -62,13 +330,14 @@ public class EmployeeSorter {
             // Sort by employee ID
             return e1.getEmployeeNumber() < pivot.getEmployeeNumber();
         } else {
-            // Sort by last name (and first name as a tiebreaker)
-            int lastNameComparison = e1.getLastName().compareTo(pivot.getLastName());
+            // Sort by last name (and first name as a tiebreaker), comparing pooled name IDs by collation key
+            NamePool names = NamePool.shared();
+            int lastNameComparison = names.compare(e1.getLastNameId(), pivot.getLastNameId());
             if (lastNameComparison < 0) {
                 return true;
             } else if (lastNameComparison == 0) {
                 // If last names are the same, compare first names
-                return e1.getFirstName().compareTo(pivot.getFirstName()) < 0;
+                return names.compare(e1.getFirstNameId(), pivot.getFirstNameId()) < 0;
             }
             return false;
         }
@@ -113,8 +382,11 @@ public class EmployeeSorter {
             employeeList.set(i, temp);
         }
 
-        // Print the employees in descending order of paycheck
+        // Print the employees in descending order of paycheck, leaving out terminated employees
         for (Employee employee : employeeList) {
+            if (employee.isTerminated()) {
+                continue;
+            }
             System.out.printf("%-20s %10s%n",
                     employee.getLastName() + ", " + employee.getFirstName(),
                     String.format("$%,.2f", employee.getPaycheck()));
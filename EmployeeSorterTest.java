@@ -0,0 +1,79 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class that contains unit tests for the radix and merge sorts in EmployeeSorter.
+ * Each test checks the result against `List.sort`, which is stable, so the sorts must
+ * agree on the order of employees with equal keys as well as on the keys themselves.
+ */
+class EmployeeSorterTest {
+
+    /**
+     * Builds a shuffled roster large enough to exercise the radix and parallel sorts.
+     */
+    private static List<Employee> shuffledRoster(int size) {
+        List<Employee> roster = GeneratedRosterSource.generate(size, size);
+        Collections.shuffle(roster, new Random(size));
+        return roster;
+    }
+
+    /**
+     * Tests that the radix sort by ID orders a shuffled roster by ascending employee ID.
+     */
+    @Test
+    void testRadixSortByID() {
+        List<Employee> roster = shuffledRoster(20000);
+        List<Employee> expected = new ArrayList<>(roster);
+        expected.sort(EmployeeSorter.BY_ID);
+        EmployeeSorter.radixSortByID(roster);
+        assertEquals(expected, roster);
+    }
+
+    /**
+     * Tests that the radix sort by name orders by last name, then first name, and keeps
+     * employees with the same full name in their original order.
+     */
+    @Test
+    void testRadixSortByNameIsStable() {
+        List<Employee> roster = shuffledRoster(20000);
+        List<Employee> expected = new ArrayList<>(roster);
+        expected.sort(Comparator.comparing(Employee::getLastName).thenComparing(Employee::getFirstName));
+        EmployeeSorter.radixSortByName(roster);
+        assertEquals(expected, roster);
+    }
+
+    /**
+     * Tests that sorting by first name and then by pay type with the parallel merge sort
+     * leaves employees ordered by pay type, then first name.
+     */
+    @Test
+    void testParallelMergeSortComposesMultiKeyOrder() {
+        List<Employee> roster = shuffledRoster(50000);
+        List<Employee> expected = new ArrayList<>(roster);
+        expected.sort(Comparator.comparing(Employee::getPayType).thenComparing(Employee::getFirstName));
+        EmployeeSorter.parallelMergeSort(roster, Comparator.comparing(Employee::getFirstName));
+        EmployeeSorter.parallelMergeSort(roster, Comparator.comparing(Employee::getPayType));
+        assertEquals(expected, roster);
+    }
+
+    /**
+     * Tests that `sort` gives the same result for lists on either side of the insertion sort threshold.
+     */
+    @Test
+    void testSortSmallAndLargeLists() {
+        for (int size : new int[]{0, 1, EmployeeSorter.INSERTION_THRESHOLD - 1, EmployeeSorter.INSERTION_THRESHOLD, 1000}) {
+            List<Employee> roster = shuffledRoster(size);
+            List<Employee> expected = new ArrayList<>(roster);
+            expected.sort(EmployeeSorter.BY_NAME);
+            EmployeeSorter.sort(roster, false);
+            assertEquals(expected, roster);
+        }
+    }
+}
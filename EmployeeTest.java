@@ -115,5 +115,73 @@ class EmployeeTest {
                 (emp.getPaycheck() - 65000f / 26), emp.getEmployeeNumber());
         assertEquals(expected, emp.toString());
     }
+
+    /**
+     * Tests that employees with the same name share one pooled name ID, and that
+     * comparing name IDs gives the same order as comparing the names themselves.
+     */
+    @Test
+    void testNamePoolSharesDuplicateNames() {
+        SalariedEmployee emp1 = new SalariedEmployee("Jane", "Hall", 50000);
+        HourlyEmployee emp2 = new HourlyEmployee("Mark", "Hall", 20);
+        HourlyEmployee emp3 = new HourlyEmployee("Mark", "Adams", 20);
+        assertEquals(emp1.getLastNameId(), emp2.getLastNameId());
+        assertSame(emp1.getLastName(), emp2.getLastName());
+        assertTrue(NamePool.shared().compare(emp3.getLastNameId(), emp1.getLastNameId()) < 0);
+        emp3.setLastName("Hall");
+        assertEquals(emp1.getLastNameId(), emp3.getLastNameId());
+    }
+
+    /**
+     * Tests that comparing names stays correct when names are added between comparisons,
+     * which renumbers the collation keys.
+     */
+    @Test
+    void testNamePoolCompareAfterNewNames() {
+        NamePool pool = new NamePool();
+        int zed = pool.intern("Zed");
+        pool.collationKey(zed);
+        int abe = pool.intern("Abe");
+        assertTrue(pool.compare(zed, abe) > 0);
+        int[] ids = new int[200];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = pool.intern("Name" + (char) ('A' + i % 26) + (ids.length - i));
+            assertTrue(pool.compare(abe, ids[i]) < 0);
+            assertTrue(pool.compare(zed, ids[i]) > 0);
+        }
+        for (int i = 1; i < ids.length; i++) {
+            assertEquals(Integer.signum(pool.name(ids[i - 1]).compareTo(pool.name(ids[i]))),
+                    Integer.signum(pool.compare(ids[i - 1], ids[i])));
+        }
+        assertTrue(pool.compare(-1, abe) < 0);
+    }
+
+    /**
+     * Tests that a salaried paycheck is prorated by the pay frequency, and that the
+     * frequency-less paycheck is the biweekly one.
+     */
+    @Test
+    void testSalariedEmployeeGetPaycheckByFrequency() {
+        SalariedEmployee emp = new SalariedEmployee("John", "Doe", 52000);
+        assertEquals(52000f / 12, emp.getPaycheck(PayFrequency.MONTHLY));
+        assertEquals(52000f / 24, emp.getPaycheck(PayFrequency.SEMI_MONTHLY));
+        assertEquals(emp.getPaycheck(), emp.getPaycheck(PayFrequency.BIWEEKLY));
+    }
+
+    /**
+     * Tests that a commission paycheck prorates only the base salary by the pay frequency,
+     * and that hourly pay does not depend on the frequency.
+     */
+    @Test
+    void testCommissionAndHourlyGetPaycheckByFrequency() {
+        float[][] commissionSchedule = {{0, 12, 25, 47, 70, 100}, {1, 3.3f, 4.1f, 4.7f, 5.5f, 7}};
+        CommissionEmployee commission = new CommissionEmployee("Chris", "Evans", 48000, commissionSchedule);
+        commission.setUnitsSold(30);
+        assertEquals((48000f / 52) + (4.1f * 30), commission.getPaycheck(PayFrequency.WEEKLY));
+
+        HourlyEmployee hourly = new HourlyEmployee("Jane", "Smith", 20);
+        hourly.setHours(40);
+        assertEquals(hourly.getPaycheck(), hourly.getPaycheck(PayFrequency.MONTHLY));
+    }
 }
 
@@ -0,0 +1,194 @@
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * A concurrent interning pool for employee names.
+ * Each distinct name is stored once and given a stable integer ID, so employees that share a name
+ * share a single String instance instead of holding their own copy.
+ * The pool also keeps a lower-case form of each name for case-insensitive searches and a collation key
+ * that orders IDs the same way `String.compareTo` orders the names, so sorting can compare ints.
+ */
+public class NamePool {
+
+    private static final NamePool SHARED = new NamePool();
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[64];
+    private volatile String[] lowerNames = new String[64];
+    private volatile int size = 0;
+    private volatile int[] collationKeys = new int[0];
+    // Name IDs in name order for the names the collation keys cover, so a rebuild only sorts the names added since
+    private int[] sortedIds = new int[0];
+
+    /**
+     * Returns the pool used by `Employee` for first and last names.
+     *
+     * @return The shared name pool.
+     */
+    public static NamePool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the ID for `name`, adding it to the pool if it has not been seen before.
+     * IDs are assigned in insertion order and never change.
+     *
+     * @param name The name to intern.
+     * @return The name's ID, or -1 if `name` is null.
+     */
+    public int intern(String name) {
+        if (name == null) {
+            return -1;
+        }
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            int next = size;
+            if (next == names.length) {
+                names = Arrays.copyOf(names, next * 2);
+                lowerNames = Arrays.copyOf(lowerNames, next * 2);
+            }
+            names[next] = name;
+            lowerNames[next] = name.toLowerCase(Locale.ROOT);
+            size = next + 1;
+            ids.put(name, next);
+            return next;
+        }
+    }
+
+    /**
+     * Returns the name stored under `id`.
+     *
+     * @param id The name ID.
+     * @return The name, or null if `id` is -1.
+     */
+    public String name(int id) {
+        return id < 0 ? null : names[id];
+    }
+
+    /**
+     * Returns the lower-case form of the name stored under `id`, computed once when the name was interned.
+     *
+     * @param id The name ID.
+     * @return The lower-case name, or null if `id` is -1.
+     */
+    public String lowerName(int id) {
+        return id < 0 ? null : lowerNames[id];
+    }
+
+    /**
+     * Returns a key that orders name IDs the same way `String.compareTo` orders their names.
+     * Keys are recomputed lazily after new names are added, so they are only comparable with keys
+     * taken while the pool held the same names.
+     *
+     * @param id The name ID.
+     * @return The collation key, or -1 if `id` is -1.
+     */
+    public int collationKey(int id) {
+        if (id < 0) {
+            return -1;
+        }
+        int[] keys = collationKeys;
+        if (id >= keys.length) {
+            keys = rebuildCollationKeys();
+        }
+        return keys[id];
+    }
+
+    /**
+     * Returns a snapshot of the collation keys for every name currently in the pool, indexed by name ID.
+     * Callers that compare many names should take one snapshot rather than calling `collationKey` repeatedly.
+     *
+     * @return The collation keys, indexed by name ID.
+     */
+    public int[] collationKeys() {
+        int[] keys = collationKeys;
+        return keys.length == size ? keys : rebuildCollationKeys();
+    }
+
+    /**
+     * Returns a snapshot of the collation keys that covers every name ID up to `maxId`. Callers that read
+     * name IDs from employees before taking a snapshot use this, since a name may have been pooled after
+     * the cached keys were built.
+     *
+     * @param maxId The highest name ID the snapshot must cover.
+     * @return The collation keys, indexed by name ID.
+     */
+    public int[] collationKeys(int maxId) {
+        int[] keys = collationKeys();
+        return maxId < keys.length ? keys : rebuildCollationKeys();
+    }
+
+    /**
+     * Compares two names by ID, giving the same result as comparing the names with `String.compareTo`.
+     * A null name (ID -1) sorts first.
+     *
+     * @param id1 The first name ID.
+     * @param id2 The second name ID.
+     * @return A negative number, zero, or a positive number as the first name is less than, equal to, or greater than the second.
+     */
+    public int compare(int id1, int id2) {
+        if (id1 == id2) {
+            return 0;
+        }
+        // Both keys must come from the same snapshot, since a rebuild renumbers every key
+        int[] keys = collationKeys;
+        if (Math.max(id1, id2) >= keys.length) {
+            keys = rebuildCollationKeys();
+        }
+        return Integer.compare(id1 < 0 ? -1 : keys[id1], id2 < 0 ? -1 : keys[id2]);
+    }
+
+    /**
+     * Returns the number of distinct names in the pool.
+     *
+     * @return The number of names.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Stores each ID's position in name order as its collation key. Only the names added since the last
+     * rebuild are sorted; they are then merged with the names already in order, so a rebuild after
+     * adding k names costs O(k log k + n) rather than a full sort.
+     *
+     * @return The new collation keys.
+     */
+    private synchronized int[] rebuildCollationKeys() {
+        int count = size;
+        if (collationKeys.length == count) {
+            return collationKeys;
+        }
+        String[] snapshot = names;
+        int previous = sortedIds.length;
+        Integer[] added = new Integer[count - previous];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = previous + i;
+        }
+        Arrays.sort(added, (a, b) -> snapshot[a].compareTo(snapshot[b]));
+        int[] merged = new int[count];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < count; k++) {
+            boolean takeOld = j == added.length
+                    || (i < previous && snapshot[sortedIds[i]].compareTo(snapshot[added[j]]) <= 0);
+            merged[k] = takeOld ? sortedIds[i++] : added[j++];
+        }
+        int[] keys = new int[count];
+        for (int rank = 0; rank < count; rank++) {
+            keys[merged[rank]] = rank;
+        }
+        sortedIds = merged;
+        collationKeys = keys;
+        return keys;
+    }
+}
@@ -0,0 +1,543 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Flow;
+
+
+/**
+ * Index over the reporting lines set with `Employee.setManagerId`, answering "total payroll cost under X",
+ * headcounts and top earners in O(log n) instead of a scan.
+ * The org tree is laid out as an Euler tour: each employee has an open and a close token, with everyone who
+ * reports to them, directly or not, between the two. A subtree is therefore one contiguous range of the tour.
+ * The tour is kept in an implicit treap whose nodes carry the paycheck total, active headcount and highest paid
+ * employee of their range, so:
+ * - a subtree query splits its range out, reads the aggregates and merges it back
+ * - a paycheck change updates one node and the aggregates on its path to the root
+ * - a move to another manager cuts the range out and splices it in after the new manager's open token
+ * all in expected O(log n). A static Euler tour over Fenwick or segment trees answers queries as fast,
+ * but cannot move a subtree without rebuilding the arrays.
+ * Subscribe the chart to an `EmployeeChangeFeed` to keep it up to date, or call `refresh` after changing an employee.
+ * If the feed fails, the chart has missed changes it cannot recover, so every query throws from then on and
+ * the chart should be rebuilt with `of`.
+ * Employees whose manager is not in the chart yet are placed at the top level and move under the manager
+ * as soon as the manager is added.
+ * Paychecks are biweekly, as returned by `getPaycheck()`. Terminated employees stay in the tree so their reports
+ * keep their place, but are paid 0 and not counted.
+ */
+public class OrgChart implements Flow.Subscriber<List<EmployeeChange>> {
+
+    private static final int NONE = -1;
+
+    // Per employee slot
+    private Employee[] employees;
+    private boolean[] active;
+    // The manager the employee is placed under, which differs from getManagerId() only while the manager is
+    // missing from the chart or the move would create a cycle
+    private int[] placedUnder;
+    private final Map<Integer, Integer> slots = new HashMap<>();
+    private int slotCount;
+    // Slots placed at the top level because their manager is not in the chart, by the missing manager's ID.
+    // Entries go stale when an employee's manager changes, so they are checked again before moving anyone
+    private final Map<Integer, Set<Integer>> waitingFor = new HashMap<>();
+    // Set when the change feed fails, since the chart may have missed changes
+    private Throwable failure;
+
+    // Treap over the tour; token 2s opens slot s and token 2s + 1 closes it
+    private int[] left;
+    private int[] right;
+    private int[] parent;
+    private int[] priority;
+    private int[] size;
+    private float[] pay;
+    private double[] sum;
+    private int[] count;
+    // The token of the highest paid active employee in the subtree, or NONE
+    private int[] best;
+    private int root = NONE;
+    private final SplittableRandom random = new SplittableRandom(37);
+
+    // Results of split, to avoid allocating a pair per call
+    private int splitLeft;
+    private int splitRight;
+    // The parts of the tour before and after the range cut out by isolate
+    private int splitLeftOf;
+    private int splitRightOf;
+
+    private OrgChart(int capacity) {
+        allocate(Math.max(16, capacity));
+    }
+
+    /**
+     * Builds a chart over `employeeList`. Employees whose manager is not in the list, or whose reporting line
+     * loops back to themselves, are placed at the top level.
+     *
+     * @param employeeList The employees to index.
+     * @return The chart.
+     */
+    public static OrgChart of(List<Employee> employeeList) {
+        OrgChart chart = new OrgChart(employeeList.size());
+        int n = employeeList.size();
+        for (Employee employee : employeeList) {
+            chart.addSlot(employee);
+        }
+        // Children as linked lists through firstChild/nextSibling, in list order
+        int[] firstChild = new int[n];
+        int[] lastChild = new int[n];
+        int[] nextSibling = new int[n];
+        Arrays.fill(firstChild, NONE);
+        Arrays.fill(nextSibling, NONE);
+        int[] managerSlot = new int[n];
+        for (int s = 0; s < n; s++) {
+            int managerID = chart.employees[s].getManagerId();
+            Integer manager = chart.slots.get(managerID);
+            managerSlot[s] = manager == null || manager == s ? NONE : manager;
+            if (manager == null && managerID != Employee.NO_MANAGER) {
+                chart.waitFor(managerID, s);
+            }
+            if (managerSlot[s] != NONE) {
+                int m = managerSlot[s];
+                if (firstChild[m] == NONE) {
+                    firstChild[m] = s;
+                } else {
+                    nextSibling[lastChild[m]] = s;
+                }
+                lastChild[m] = s;
+            }
+        }
+        int[] tour = new int[2 * n];
+        int length = 0;
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        // Top-level employees first, then anyone left over because their reporting line forms a cycle
+        for (int pass = 0; pass < 2; pass++) {
+            for (int s = 0; s < n; s++) {
+                if (visited[s] || (pass == 0 && managerSlot[s] != NONE)) {
+                    continue;
+                }
+                chart.placedUnder[s] = Employee.NO_MANAGER;
+                int top = 0;
+                stack[top++] = s;
+                visited[s] = true;
+                cursor[s] = firstChild[s];
+                tour[length++] = 2 * s;
+                while (top > 0) {
+                    int current = stack[top - 1];
+                    int child = cursor[current];
+                    if (child == NONE) {
+                        top--;
+                        tour[length++] = 2 * current + 1;
+                    } else {
+                        cursor[current] = nextSibling[child];
+                        if (!visited[child]) {
+                            visited[child] = true;
+                            chart.placedUnder[child] = chart.employees[current].getEmployeeNumber();
+                            cursor[child] = firstChild[child];
+                            stack[top++] = child;
+                            tour[length++] = 2 * child;
+                        }
+                    }
+                }
+            }
+        }
+        chart.root = chart.build(tour, length);
+        return chart;
+    }
+
+    /**
+     * Returns the number of employees in the chart, including terminated ones.
+     *
+     * @return The number of employees.
+     */
+    public synchronized int size() {
+        return slotCount;
+    }
+
+    /**
+     * Returns the total paycheck of an employee and everyone who reports to them, directly or not.
+     *
+     * @param employeeID The ID of the employee at the top of the subtree.
+     * @return The total biweekly pay of the subtree.
+     * @throws IllegalArgumentException If the employee is not in the chart.
+     * @throws IllegalStateException If the change feed the chart subscribes to has failed.
+     */
+    public synchronized double subtreeTotal(int employeeID) {
+        checkCurrent();
+        int middle = isolate(slotOf(employeeID));
+        double total = sum[middle];
+        restore(middle);
+        return total;
+    }
+
+    /**
+     * Returns the number of active employees in an employee's subtree, including the employee.
+     *
+     * @param employeeID The ID of the employee at the top of the subtree.
+     * @return The headcount of the subtree.
+     * @throws IllegalArgumentException If the employee is not in the chart.
+     * @throws IllegalStateException If the change feed the chart subscribes to has failed.
+     */
+    public synchronized int subtreeHeadcount(int employeeID) {
+        checkCurrent();
+        int middle = isolate(slotOf(employeeID));
+        int headcount = count[middle];
+        restore(middle);
+        return headcount;
+    }
+
+    /**
+     * Returns the highest paid active employee in an employee's subtree, including the employee.
+     * Ties go to the employee who comes first in the tour, so a manager wins a tie with their reports.
+     *
+     * @param employeeID The ID of the employee at the top of the subtree.
+     * @return The top earner, or null if everyone in the subtree is terminated.
+     * @throws IllegalArgumentException If the employee is not in the chart.
+     * @throws IllegalStateException If the change feed the chart subscribes to has failed.
+     */
+    public synchronized Employee topEarner(int employeeID) {
+        checkCurrent();
+        int middle = isolate(slotOf(employeeID));
+        int token = best[middle];
+        restore(middle);
+        return token == NONE ? null : employees[token / 2];
+    }
+
+    /**
+     * Brings the chart up to date with `employee`: adds them if they are new, and updates their paycheck,
+     * whether they are terminated, and their manager. A move that would make an employee report to someone
+     * in their own subtree is not made, and the employee keeps their current place until their manager changes again.
+     *
+     * @param employee The employee who changed.
+     */
+    public synchronized void refresh(Employee employee) {
+        Integer slot = slots.get(employee.getEmployeeNumber());
+        if (slot == null) {
+            insert(employee);
+            return;
+        }
+        int s = slot;
+        active[s] = !employee.isTerminated();
+        pay[2 * s] = active[s] ? employee.getPaycheck() : 0;
+        for (int t = 2 * s; t != NONE; t = parent[t]) {
+            pull(t);
+        }
+        if (employee.getManagerId() != placedUnder[s]) {
+            move(s, employee.getManagerId());
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<EmployeeChange> batch) {
+        synchronized (this) {
+            for (EmployeeChange change : batch) {
+                refresh(change.getEmployee());
+            }
+        }
+    }
+
+    /**
+     * Marks the chart as stale, since changes published after the failure will never arrive.
+     * Every query throws an `IllegalStateException` from then on.
+     *
+     * @param error The failure reported by the feed.
+     */
+    @Override
+    public synchronized void onError(Throwable error) {
+        failure = error;
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    private void checkCurrent() {
+        if (failure != null) {
+            throw new IllegalStateException("Org chart is stale after its change feed failed: " + failure, failure);
+        }
+    }
+
+    private void waitFor(int managerID, int s) {
+        waitingFor.computeIfAbsent(managerID, id -> new LinkedHashSet<>()).add(s);
+    }
+
+    private int slotOf(int employeeID) {
+        Integer slot = slots.get(employeeID);
+        if (slot == null) {
+            throw new IllegalArgumentException("No employee with ID " + employeeID + " in the org chart");
+        }
+        return slot;
+    }
+
+    private void addSlot(Employee employee) {
+        if (slotCount == employees.length) {
+            allocate(employees.length * 2);
+        }
+        int s = slotCount++;
+        employees[s] = employee;
+        active[s] = !employee.isTerminated();
+        placedUnder[s] = Employee.NO_MANAGER;
+        slots.put(employee.getEmployeeNumber(), s);
+        for (int t = 2 * s; t <= 2 * s + 1; t++) {
+            left[t] = NONE;
+            right[t] = NONE;
+            parent[t] = NONE;
+            priority[t] = random.nextInt();
+        }
+        pay[2 * s] = active[s] ? employee.getPaycheck() : 0;
+        pay[2 * s + 1] = 0;
+        pull(2 * s);
+        pull(2 * s + 1);
+    }
+
+    /**
+     * Adds a new employee as a leaf at the top level, then moves them under their manager,
+     * and moves anyone who was waiting for them under them.
+     */
+    private void insert(Employee employee) {
+        addSlot(employee);
+        int s = slotCount - 1;
+        root = merge(root, merge(2 * s, 2 * s + 1));
+        parent[root] = NONE;
+        if (employee.getManagerId() != Employee.NO_MANAGER) {
+            move(s, employee.getManagerId());
+        }
+        int id = employee.getEmployeeNumber();
+        Set<Integer> reports = waitingFor.remove(id);
+        if (reports != null) {
+            for (int report : reports) {
+                if (employees[report].getManagerId() == id && placedUnder[report] != id) {
+                    move(report, id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves slot `s` and its subtree under the employee with ID `managerID`, or to the top level.
+     */
+    private void move(int s, int managerID) {
+        Integer target = slots.get(managerID);
+        if (target != null) {
+            int open = rank(2 * s);
+            int close = rank(2 * s + 1);
+            int at = rank(2 * target);
+            if (at >= open && at <= close) {
+                return;
+            }
+        }
+        int middle = isolate(s);
+        root = merge(splitLeftOf, splitRightOf);
+        parent[root] = NONE;
+        if (target == null) {
+            root = merge(root, middle);
+        } else {
+            split(root, rank(2 * target) + 1);
+            int before = splitLeft;
+            int after = splitRight;
+            root = merge(merge(before, middle), after);
+        }
+        parent[root] = NONE;
+        placedUnder[s] = target == null ? Employee.NO_MANAGER : managerID;
+        if (target == null && managerID != Employee.NO_MANAGER) {
+            waitFor(managerID, s);
+        }
+    }
+
+    /**
+     * Cuts slot `s`'s subtree out of the tour, leaving the parts before and after it in splitLeftOf and splitRightOf.
+     *
+     * @return The root of the treap holding the subtree.
+     */
+    private int isolate(int s) {
+        int open = rank(2 * s);
+        int close = rank(2 * s + 1);
+        split(root, open);
+        int before = splitLeft;
+        split(splitRight, close - open + 1);
+        splitLeftOf = before;
+        splitRightOf = splitRight;
+        int middle = splitLeft;
+        parent[middle] = NONE;
+        if (before != NONE) {
+            parent[before] = NONE;
+        }
+        if (splitRightOf != NONE) {
+            parent[splitRightOf] = NONE;
+        }
+        return middle;
+    }
+
+    /**
+     * Merges a range cut out by isolate back into place.
+     */
+    private void restore(int middle) {
+        root = merge(merge(splitLeftOf, middle), splitRightOf);
+        parent[root] = NONE;
+    }
+
+    /**
+     * Returns the position of token `t` in the tour.
+     */
+    private int rank(int t) {
+        int position = size(left[t]);
+        while (parent[t] != NONE) {
+            int p = parent[t];
+            if (right[p] == t) {
+                position += size(left[p]) + 1;
+            }
+            t = p;
+        }
+        return position;
+    }
+
+    /**
+     * Splits treap `t` into its first `k` tokens, left in splitLeft, and the rest, left in splitRight.
+     */
+    private void split(int t, int k) {
+        if (t == NONE) {
+            splitLeft = NONE;
+            splitRight = NONE;
+        } else if (size(left[t]) < k) {
+            split(right[t], k - size(left[t]) - 1);
+            right[t] = splitLeft;
+            pull(t);
+            splitLeft = t;
+        } else {
+            split(left[t], k);
+            left[t] = splitRight;
+            pull(t);
+            splitRight = t;
+        }
+    }
+
+    private int merge(int a, int b) {
+        if (a == NONE) {
+            return b;
+        }
+        if (b == NONE) {
+            return a;
+        }
+        if (priority[a] > priority[b]) {
+            right[a] = merge(right[a], b);
+            pull(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        pull(b);
+        return b;
+    }
+
+    /**
+     * Builds a treap holding `tour` in order in O(n), using a stack to find each token's place in the heap order.
+     */
+    private int build(int[] tour, int length) {
+        int[] stack = new int[length];
+        int top = 0;
+        for (int i = 0; i < length; i++) {
+            int t = tour[i];
+            int last = NONE;
+            while (top > 0 && priority[stack[top - 1]] < priority[t]) {
+                last = stack[--top];
+            }
+            left[t] = last;
+            if (top > 0) {
+                right[stack[top - 1]] = t;
+            }
+            stack[top++] = t;
+        }
+        if (top == 0) {
+            return NONE;
+        }
+        // Pull every node after its children: reverse pre-order
+        int[] order = new int[length];
+        int visited = 0;
+        top = 0;
+        stack[top++] = stack[0];
+        while (top > 0) {
+            int t = stack[--top];
+            order[visited++] = t;
+            if (left[t] != NONE) {
+                stack[top++] = left[t];
+            }
+            if (right[t] != NONE) {
+                stack[top++] = right[t];
+            }
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            pull(order[i]);
+        }
+        int treapRoot = order[0];
+        parent[treapRoot] = NONE;
+        return treapRoot;
+    }
+
+    /**
+     * Recomputes the aggregates of token `t` from its children and points the children back at it.
+     */
+    private void pull(int t) {
+        int l = left[t];
+        int r = right[t];
+        boolean counted = (t & 1) == 0 && active[t / 2];
+        int candidate = counted ? t : NONE;
+        size[t] = 1;
+        sum[t] = pay[t];
+        count[t] = counted ? 1 : 0;
+        if (l != NONE) {
+            parent[l] = t;
+            size[t] += size[l];
+            sum[t] += sum[l];
+            count[t] += count[l];
+            candidate = higherPaid(best[l], candidate);
+        }
+        if (r != NONE) {
+            parent[r] = t;
+            size[t] += size[r];
+            sum[t] += sum[r];
+            count[t] += count[r];
+            candidate = higherPaid(candidate, best[r]);
+        }
+        best[t] = candidate;
+    }
+
+    /**
+     * Returns whichever token is paid more, preferring `a` on a tie.
+     */
+    private int higherPaid(int a, int b) {
+        if (a == NONE) {
+            return b;
+        }
+        if (b == NONE) {
+            return a;
+        }
+        return pay[b] > pay[a] ? b : a;
+    }
+
+    private int size(int t) {
+        return t == NONE ? 0 : size[t];
+    }
+
+    private void allocate(int capacity) {
+        int tokens = 2 * capacity;
+        employees = employees == null ? new Employee[capacity] : Arrays.copyOf(employees, capacity);
+        active = active == null ? new boolean[capacity] : Arrays.copyOf(active, capacity);
+        placedUnder = placedUnder == null ? new int[capacity] : Arrays.copyOf(placedUnder, capacity);
+        left = left == null ? new int[tokens] : Arrays.copyOf(left, tokens);
+        right = right == null ? new int[tokens] : Arrays.copyOf(right, tokens);
+        parent = parent == null ? new int[tokens] : Arrays.copyOf(parent, tokens);
+        priority = priority == null ? new int[tokens] : Arrays.copyOf(priority, tokens);
+        size = size == null ? new int[tokens] : Arrays.copyOf(size, tokens);
+        pay = pay == null ? new float[tokens] : Arrays.copyOf(pay, tokens);
+        sum = sum == null ? new double[tokens] : Arrays.copyOf(sum, tokens);
+        count = count == null ? new int[tokens] : Arrays.copyOf(count, tokens);
+        best = best == null ? new int[tokens] : Arrays.copyOf(best, tokens);
+    }
+}
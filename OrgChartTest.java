@@ -0,0 +1,232 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class that contains unit tests for OrgChart. Each test compares the chart's subtree totals, headcounts
+ * and top earners against a walk of the reporting lines, before and after paycheck changes,
+ * terminations, moves and new hires, whether the chart is refreshed directly or through the change feed.
+ */
+class OrgChartTest {
+
+    /**
+     * Gives every employee after the first a random manager earlier in the list, so there are no cycles.
+     */
+    private static void assignManagers(List<Employee> employees, Random random) {
+        for (int i = 1; i < employees.size(); i++) {
+            employees.get(i).setManagerId(employees.get(random.nextInt(i)).getEmployeeNumber());
+        }
+    }
+
+    private static List<Employee> subtree(List<Employee> employees, Employee top) {
+        Map<Integer, List<Employee>> reports = new HashMap<>();
+        for (Employee employee : employees) {
+            reports.computeIfAbsent(employee.getManagerId(), id -> new ArrayList<>()).add(employee);
+        }
+        List<Employee> result = new ArrayList<>();
+        List<Employee> pending = new ArrayList<>(List.of(top));
+        while (!pending.isEmpty()) {
+            Employee employee = pending.remove(pending.size() - 1);
+            result.add(employee);
+            pending.addAll(reports.getOrDefault(employee.getEmployeeNumber(), List.of()));
+        }
+        return result;
+    }
+
+    private static void assertMatchesWalk(OrgChart chart, List<Employee> employees) {
+        for (Employee top : employees) {
+            double total = 0;
+            int headcount = 0;
+            float highest = Float.NEGATIVE_INFINITY;
+            for (Employee employee : subtree(employees, top)) {
+                if (!employee.isTerminated()) {
+                    total += employee.getPaycheck();
+                    headcount++;
+                    highest = Math.max(highest, employee.getPaycheck());
+                }
+            }
+            int id = top.getEmployeeNumber();
+            assertEquals(total, chart.subtreeTotal(id), 1e-3);
+            assertEquals(headcount, chart.subtreeHeadcount(id));
+            if (headcount == 0) {
+                assertNull(chart.topEarner(id));
+            } else {
+                assertEquals(highest, chart.topEarner(id).getPaycheck());
+            }
+        }
+    }
+
+    /**
+     * Tests a freshly built chart, including employees whose manager is not in the roster.
+     */
+    @Test
+    void testBuiltChartMatchesWalk() {
+        List<Employee> employees = GeneratedRosterSource.generate(400, 21);
+        assignManagers(employees, new Random(21));
+        employees.get(7).setManagerId(Integer.MAX_VALUE);
+        OrgChart chart = OrgChart.of(employees);
+        assertEquals(400, chart.size());
+        assertMatchesWalk(chart, employees);
+        assertThrows(IllegalArgumentException.class, () -> chart.subtreeTotal(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Tests that refreshing after raises, terminations, moves and new hires keeps the chart in step with a walk,
+     * and that a move under someone in the employee's own subtree is not made.
+     */
+    @Test
+    void testRefreshAfterChanges() {
+        Roster roster = new Roster(new GeneratedRosterSource(300, 22));
+        List<Employee> employees = new ArrayList<>(roster.employees());
+        Random random = new Random(22);
+        assignManagers(employees, random);
+        OrgChart chart = OrgChart.of(employees);
+
+        for (int round = 0; round < 200; round++) {
+            Employee employee = employees.get(random.nextInt(employees.size()));
+            switch (round % 4) {
+                case 0:
+                    if (employee instanceof HourlyEmployee hourly) {
+                        hourly.setHours(hourly.getHours() + 5);
+                    } else if (employee instanceof SalariedEmployee salaried) {
+                        salaried.setSalary(salaried.getSalary() + 2600);
+                    }
+                    break;
+                case 1:
+                    if (roster.terminate(employee.getEmployeeNumber()) == null) {
+                        roster.rehire(employee);
+                    }
+                    break;
+                case 2:
+                    List<Employee> below = subtree(employees, employee);
+                    Employee manager = employees.get(random.nextInt(employees.size()));
+                    if (!below.contains(manager)) {
+                        employee.setManagerId(manager.getEmployeeNumber());
+                    }
+                    break;
+                default:
+                    SalariedEmployee hire = new SalariedEmployee("New", "Hire", 40000 + round);
+                    hire.setManagerId(employee.getEmployeeNumber());
+                    employees.add(hire);
+                    employee = hire;
+            }
+            chart.refresh(employee);
+        }
+        assertMatchesWalk(chart, employees);
+
+        Employee top = employees.get(0);
+        Employee report = subtree(employees, top).get(1);
+        int before = chart.subtreeHeadcount(report.getEmployeeNumber());
+        top.setManagerId(report.getEmployeeNumber());
+        chart.refresh(top);
+        assertEquals(before, chart.subtreeHeadcount(report.getEmployeeNumber()));
+    }
+
+    /**
+     * Tests a chart subscribed to the change feed, with raises, terminations, moves and new hires
+     * made only through setters and the roster.
+     */
+    @Test
+    void testUpdatesFromChangeFeed() {
+        Roster roster = new Roster(new GeneratedRosterSource(300, 23));
+        List<Employee> employees = new ArrayList<>(roster.employees());
+        Random random = new Random(23);
+        assignManagers(employees, random);
+        OrgChart chart = OrgChart.of(employees);
+        EmployeeChangeFeed feed = new EmployeeChangeFeed(Runnable::run, 16, 4);
+        feed.subscribe(chart);
+        Employee.setChangeFeed(feed);
+        try {
+            for (int round = 0; round < 200; round++) {
+                Employee employee = employees.get(random.nextInt(employees.size()));
+                switch (round % 4) {
+                    case 0:
+                        if (employee instanceof HourlyEmployee hourly) {
+                            hourly.setRate(hourly.getRate() + 1);
+                        } else if (employee instanceof SalariedEmployee salaried) {
+                            salaried.setSalary(salaried.getSalary() + 2600);
+                        }
+                        break;
+                    case 1:
+                        // A hire terminated before the feed flushes cancels out and never reaches the chart,
+                        // so only terminate employees the chart was built with
+                        Employee leaver = employees.get(random.nextInt(300));
+                        if (roster.terminate(leaver.getEmployeeNumber()) == null) {
+                            roster.rehire(leaver);
+                        }
+                        break;
+                    case 2:
+                        Employee manager = employees.get(random.nextInt(employees.size()));
+                        if (!subtree(employees, employee).contains(manager)) {
+                            employee.setManagerId(manager.getEmployeeNumber());
+                        }
+                        break;
+                    default:
+                        HourlyEmployee hire = new HourlyEmployee("New", "Hire", 20 + round % 7);
+                        hire.setManagerId(employee.getEmployeeNumber());
+                        roster.add(hire);
+                        employees.add(hire);
+                }
+            }
+            feed.flush();
+            assertEquals(employees.size(), chart.size());
+            assertMatchesWalk(chart, employees);
+        } finally {
+            Employee.setChangeFeed(null);
+            feed.close();
+        }
+    }
+
+    /**
+     * Tests that employees placed at the top level because their manager was missing move under the manager
+     * once the manager is added, unless their manager has changed in the meantime.
+     */
+    @Test
+    void testManagerAddedLater() {
+        SalariedEmployee manager = new SalariedEmployee("Late", "Manager", 90000);
+        List<Employee> employees = new ArrayList<>(GeneratedRosterSource.generate(50, 24));
+        for (int i = 0; i < 10; i++) {
+            employees.get(i).setManagerId(manager.getEmployeeNumber());
+        }
+        employees.get(10).setManagerId(employees.get(0).getEmployeeNumber());
+        OrgChart chart = OrgChart.of(employees);
+        assertEquals(2, chart.subtreeHeadcount(employees.get(0).getEmployeeNumber()));
+
+        employees.get(9).setManagerId(Employee.NO_MANAGER);
+        chart.refresh(employees.get(9));
+        HourlyEmployee newcomer = new HourlyEmployee("New", "Hire", 20);
+        newcomer.setManagerId(manager.getEmployeeNumber());
+        chart.refresh(newcomer);
+        employees.add(newcomer);
+        chart.refresh(manager);
+        employees.add(manager);
+
+        // Nine original reports, the one reporting to the first of them, the newcomer and the manager
+        assertEquals(12, chart.subtreeHeadcount(manager.getEmployeeNumber()));
+        assertEquals(1, chart.subtreeHeadcount(employees.get(9).getEmployeeNumber()));
+        assertMatchesWalk(chart, employees);
+    }
+
+    /**
+     * Tests that a chart whose change feed failed refuses to answer rather than return stale results.
+     */
+    @Test
+    void testFeedFailureMakesChartStale() {
+        List<Employee> employees = GeneratedRosterSource.generate(20, 25);
+        OrgChart chart = OrgChart.of(employees);
+        int id = employees.get(0).getEmployeeNumber();
+        assertEquals(employees.get(0).getPaycheck(), chart.subtreeTotal(id), 1e-3);
+
+        RuntimeException error = new RuntimeException("subscriber buffer overflow");
+        chart.onError(error);
+        assertSame(error, assertThrows(IllegalStateException.class, () -> chart.subtreeTotal(id)).getCause());
+        assertThrows(IllegalStateException.class, () -> chart.subtreeHeadcount(id));
+        assertThrows(IllegalStateException.class, () -> chart.topEarner(id));
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Column arrays holding the gross-to-net breakdown for a run of `PayPipeline`.
+ * A batch is a view of the slots `[from, to)` of the shared arrays; the result of a run is a view of all of them.
+ */
+public class PayBatch {
+
+    final int from;
+    final int to;
+    final int[] employeeNumbers;
+    final float[] gross;
+    final float[] taxable;
+    final float[] preTax;
+    final float[] tax;
+    final float[] postTax;
+    final float[] net;
+
+    /**
+     * Constructs an empty breakdown for `size` employees.
+     *
+     * @param size The number of employees.
+     */
+    PayBatch(int size) {
+        this(0, size, new int[size], new float[size], new float[size], new float[size], new float[size],
+                new float[size], new float[size]);
+    }
+
+    private PayBatch(int from, int to, int[] employeeNumbers, float[] gross, float[] taxable, float[] preTax,
+                     float[] tax, float[] postTax, float[] net) {
+        this.from = from;
+        this.to = to;
+        this.employeeNumbers = employeeNumbers;
+        this.gross = gross;
+        this.taxable = taxable;
+        this.preTax = preTax;
+        this.tax = tax;
+        this.postTax = postTax;
+        this.net = net;
+    }
+
+    /**
+     * Returns a view of the slots `[from, to)` that shares this batch's arrays.
+     */
+    PayBatch slice(int from, int to) {
+        return new PayBatch(from, to, employeeNumbers, gross, taxable, preTax, tax, postTax, net);
+    }
+
+    public int size() {
+        return to - from;
+    }
+
+    public int getEmployeeNumber(int index) {
+        return employeeNumbers[from + index];
+    }
+
+    public float getGross(int index) {
+        return gross[from + index];
+    }
+
+    public float getPreTax(int index) {
+        return preTax[from + index];
+    }
+
+    public float getTax(int index) {
+        return tax[from + index];
+    }
+
+    public float getPostTax(int index) {
+        return postTax[from + index];
+    }
+
+    public float getNet(int index) {
+        return net[from + index];
+    }
+
+    /**
+     * Returns the total net pay of the batch, summed in index order so the total is reproducible.
+     *
+     * @return The total net pay.
+     */
+    public double totalNet() {
+        double total = 0;
+        for (int i = from; i < to; i++) {
+            total += net[i];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,63 @@
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * How often a pay group is paid, with the number of pay periods per year used to prorate salaries
+ * and the rule for which dates are pay dates.
+ */
+public enum PayFrequency {
+    WEEKLY(52),
+    BIWEEKLY(26),
+    SEMI_MONTHLY(24),
+    MONTHLY(12);
+
+    private final int periodsPerYear;
+
+    PayFrequency(int periodsPerYear) {
+        this.periodsPerYear = periodsPerYear;
+    }
+
+    public int periodsPerYear() {
+        return periodsPerYear;
+    }
+
+    /**
+     * Returns every pay date between `from` and `to`, inclusive, in ascending order.
+     * - Weekly and biweekly groups are paid every 7 or 14 days, counting from `anchor`.
+     * - Semi-monthly groups are paid on the 15th and on the last day of each month.
+     * - Monthly groups are paid on the last day of each month.
+     *
+     * @param anchor Any past or future pay date of a weekly or biweekly group. Ignored for other frequencies.
+     * @param from The first date to consider.
+     * @param to The last date to consider.
+     * @return The pay dates in the range.
+     */
+    public List<LocalDate> payDates(LocalDate anchor, LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        if (this == WEEKLY || this == BIWEEKLY) {
+            int step = this == WEEKLY ? 7 : 14;
+            long offset = Math.floorMod(ChronoUnit.DAYS.between(anchor, from), step);
+            LocalDate date = offset == 0 ? from : from.plusDays(step - offset);
+            for (; !date.isAfter(to); date = date.plusDays(step)) {
+                dates.add(date);
+            }
+            return dates;
+        }
+        for (LocalDate month = from.withDayOfMonth(1); !month.isAfter(to); month = month.plusMonths(1)) {
+            if (this == SEMI_MONTHLY) {
+                addIfInRange(dates, month.withDayOfMonth(15), from, to);
+            }
+            addIfInRange(dates, month.withDayOfMonth(month.lengthOfMonth()), from, to);
+        }
+        return dates;
+    }
+
+    private static void addIfInRange(List<LocalDate> dates, LocalDate date, LocalDate from, LocalDate to) {
+        if (!date.isBefore(from) && !date.isAfter(to)) {
+            dates.add(date);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+import java.time.LocalDate;
+import java.util.List;
+
+
+/**
+ * A set of employees who are paid together on the same schedule, such as "hourly staff, weekly".
+ * Each group has its own pay frequency and its own share of threads in a `PayGroupScheduler`.
+ * Groups are expected not to share employees, so their pay runs can proceed independently.
+ */
+public class PayGroup {
+
+    private final String name;
+    private final PayFrequency frequency;
+    private final LocalDate anchor;
+    private final List<Employee> employees;
+    private final int threads;
+
+    /**
+     * Constructs a PayGroup.
+     *
+     * @param name The name of the group, used in reports and thread names.
+     * @param frequency How often the group is paid.
+     * @param anchor Any pay date of the group; only used by weekly and biweekly groups.
+     * @param employees The employees in the group.
+     * @param threads The number of threads the scheduler dedicates to this group's pay runs.
+     */
+    public PayGroup(String name, PayFrequency frequency, LocalDate anchor, List<Employee> employees, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.name = name;
+        this.frequency = frequency;
+        this.anchor = anchor;
+        this.employees = employees;
+        this.threads = threads;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PayFrequency getFrequency() {
+        return frequency;
+    }
+
+    public List<Employee> getEmployees() {
+        return employees;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns this group's pay dates between `from` and `to`, inclusive.
+     *
+     * @param from The first date to consider.
+     * @param to The last date to consider.
+     * @return The pay dates in the range, in ascending order.
+     */
+    public List<LocalDate> payDates(LocalDate from, LocalDate to) {
+        return frequency.payDates(anchor, from, to);
+    }
+
+    /**
+     * Computes this group's payroll for one pay date.
+     *
+     * @param payDate The pay date.
+     * @return The paychecks for the run.
+     */
+    public PayRun run(LocalDate payDate) {
+        return run(payDate, PayKernel.of(employees));
+    }
+
+    /**
+     * Computes this group's payroll for one pay date with a kernel already built from the group's employees,
+     * so a run covering several pay dates only builds the kernel once.
+     *
+     * @param payDate The pay date.
+     * @param kernel A kernel built from `getEmployees()`.
+     * @return The paychecks for the run.
+     */
+    public PayRun run(LocalDate payDate, PayKernel kernel) {
+        float[] paychecks = new float[kernel.size()];
+        kernel.compute(paychecks, frequency);
+        return new PayRun(this, payDate, paychecks);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + frequency.name().toLowerCase() + ", " + employees.size() + " employees)";
+    }
+}
+
+/**
+ * The PayRun class holds the result of one pay group's payroll for one pay date.
+ */
+class PayRun {
+
+    private final PayGroup group;
+    private final LocalDate payDate;
+    private final float[] paychecks;
+
+    /**
+     * Constructs a PayRun.
+     *
+     * @param group The group that was paid.
+     * @param payDate The pay date.
+     * @param paychecks Each employee's paycheck, in the same order as the group's employees.
+     */
+    public PayRun(PayGroup group, LocalDate payDate, float[] paychecks) {
+        this.group = group;
+        this.payDate = payDate;
+        this.paychecks = paychecks;
+    }
+
+    public PayGroup getGroup() {
+        return group;
+    }
+
+    public LocalDate getPayDate() {
+        return payDate;
+    }
+
+    public float[] getPaychecks() {
+        return paychecks;
+    }
+
+    /**
+     * Returns the total of every paycheck in the run.
+     *
+     * @return The total pay.
+     */
+    public double total() {
+        double total = 0;
+        for (float paycheck : paychecks) {
+            total += paycheck;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s: $%,.2f", group.getName(), payDate, total());
+    }
+}
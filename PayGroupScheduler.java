@@ -0,0 +1,111 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+
+/**
+ * Runs the payrolls of several pay groups concurrently, for example a month-end run where the weekly,
+ * biweekly, semi-monthly and monthly groups all have pay dates.
+ * Each group runs on its own fixed-size executor, so a large or slow group cannot starve the others,
+ * and a failure in one group only fails that group's result. A shared limit caps how many pay runs
+ * and kernel builds execute at once across all groups. Each group's pay kernel is built once per call to `schedule`
+ * and shared by all of that group's pay dates, which run concurrently on the group's threads.
+ */
+public class PayGroupScheduler implements AutoCloseable {
+
+    private final Map<PayGroup, ExecutorService> executors = new LinkedHashMap<>();
+    private final Semaphore runSlots;
+
+    /**
+     * Constructs a scheduler for `groups`, starting one executor per group.
+     *
+     * @param groups The pay groups to schedule.
+     * @param maxConcurrentRuns The maximum number of pay runs and kernel builds executing at once across all groups.
+     */
+    public PayGroupScheduler(List<PayGroup> groups, int maxConcurrentRuns) {
+        if (maxConcurrentRuns < 1) {
+            throw new IllegalArgumentException("maxConcurrentRuns must be positive");
+        }
+        this.runSlots = new Semaphore(maxConcurrentRuns);
+        for (PayGroup group : groups) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            executors.put(group, Executors.newFixedThreadPool(group.getThreads(), task -> {
+                Thread thread = new Thread(task, "pay-" + group.getName() + "-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+    }
+
+    /**
+     * Starts a pay run for every group and pay date between `from` and `to`, inclusive.
+     *
+     * @param from The first date of the window.
+     * @param to The last date of the window.
+     * @return For each group, a future that completes with its pay runs in pay date order,
+     *         or completes exceptionally if any of that group's runs failed.
+     */
+    public Map<PayGroup, CompletableFuture<List<PayRun>>> schedule(LocalDate from, LocalDate to) {
+        Map<PayGroup, CompletableFuture<List<PayRun>>> results = new LinkedHashMap<>();
+        for (Map.Entry<PayGroup, ExecutorService> entry : executors.entrySet()) {
+            PayGroup group = entry.getKey();
+            ExecutorService executor = entry.getValue();
+            List<LocalDate> payDates = group.payDates(from, to);
+            CompletableFuture<PayKernel> kernel = payDates.isEmpty()
+                    ? CompletableFuture.completedFuture(null)
+                    : CompletableFuture.supplyAsync(() -> withSlot(() -> PayKernel.of(group.getEmployees())), executor);
+            List<CompletableFuture<PayRun>> runs = new ArrayList<>();
+            for (LocalDate payDate : payDates) {
+                runs.add(kernel.thenApplyAsync(k -> withSlot(() -> group.run(payDate, k)), executor));
+            }
+            results.put(group, CompletableFuture.allOf(runs.toArray(new CompletableFuture<?>[0]))
+                    .thenApply(done -> runs.stream().map(CompletableFuture::join).toList()));
+        }
+        return results;
+    }
+
+    /**
+     * Runs every group's payroll for `from` to `to` and waits for all of them.
+     *
+     * @param from The first date of the window.
+     * @param to The last date of the window.
+     * @return Every pay run, grouped by pay group in the order the groups were given.
+     * @throws java.util.concurrent.CompletionException If any group's run failed, after every group has finished.
+     */
+    public List<PayRun> runAll(LocalDate from, LocalDate to) {
+        Map<PayGroup, CompletableFuture<List<PayRun>>> results = schedule(from, to);
+        CompletableFuture.allOf(results.values().toArray(new CompletableFuture<?>[0])).join();
+        List<PayRun> runs = new ArrayList<>();
+        for (CompletableFuture<List<PayRun>> result : results.values()) {
+            runs.addAll(result.join());
+        }
+        return runs;
+    }
+
+    private <T> T withSlot(Supplier<T> task) {
+        runSlots.acquireUninterruptibly();
+        try {
+            return task.get();
+        } finally {
+            runSlots.release();
+        }
+    }
+
+    /**
+     * Stops every group's executor. Runs already started are allowed to finish.
+     */
+    @Override
+    public void close() {
+        for (ExecutorService executor : executors.values()) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class that contains unit tests for pay frequencies, pay groups and the PayGroupScheduler.
+ * The tests check pay dates for each frequency and that concurrent groups are isolated from each other.
+ */
+class PayGroupSchedulerTest {
+
+    private static final LocalDate JANUARY_1 = LocalDate.of(2025, 1, 1);
+    private static final LocalDate JANUARY_31 = LocalDate.of(2025, 1, 31);
+
+    /**
+     * Tests the pay dates each frequency produces for January 2025, with weekly and biweekly
+     * groups anchored on Friday, January 3.
+     */
+    @Test
+    void testPayDates() {
+        LocalDate anchor = LocalDate.of(2025, 1, 3);
+        assertEquals(5, PayFrequency.WEEKLY.payDates(anchor, JANUARY_1, JANUARY_31).size());
+        assertEquals(List.of(LocalDate.of(2025, 1, 3), LocalDate.of(2025, 1, 17), LocalDate.of(2025, 1, 31)),
+                PayFrequency.BIWEEKLY.payDates(anchor, JANUARY_1, JANUARY_31));
+        assertEquals(List.of(LocalDate.of(2025, 1, 15), JANUARY_31),
+                PayFrequency.SEMI_MONTHLY.payDates(anchor, JANUARY_1, JANUARY_31));
+        assertEquals(List.of(JANUARY_31), PayFrequency.MONTHLY.payDates(anchor, JANUARY_1, JANUARY_31));
+    }
+
+    /**
+     * Tests that the scheduler runs every group's pay dates and prorates salaries by each group's frequency.
+     */
+    @Test
+    void testRunAll() {
+        SalariedEmployee weekly = new SalariedEmployee("John", "Doe", 52000);
+        SalariedEmployee monthly = new SalariedEmployee("Jane", "Doe", 60000);
+        List<PayGroup> groups = List.of(
+                new PayGroup("weekly", PayFrequency.WEEKLY, LocalDate.of(2025, 1, 3), List.of(weekly), 2),
+                new PayGroup("monthly", PayFrequency.MONTHLY, JANUARY_1, List.of(monthly), 1));
+        try (PayGroupScheduler scheduler = new PayGroupScheduler(groups, 2)) {
+            List<PayRun> runs = scheduler.runAll(JANUARY_1, JANUARY_31);
+            assertEquals(6, runs.size());
+            assertEquals(1000, runs.get(0).total(), 0.001);
+            assertEquals(JANUARY_31, runs.get(5).getPayDate());
+            assertEquals(5000, runs.get(5).total(), 0.001);
+        }
+    }
+
+    /**
+     * Tests that a group with two threads runs two of its pay dates at once on the shared kernel: each of the first
+     * two runs waits for the other to start before paying its one employee.
+     */
+    @Test
+    void testGroupRunsOverlap() {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        Employee waiting = new Employee("Slow", "Record") {
+            @Override
+            public float getPaycheck() {
+                bothRunning.countDown();
+                try {
+                    return bothRunning.await(5, TimeUnit.SECONDS) ? 1 : 0;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return 0;
+                }
+            }
+        };
+        PayGroup group = new PayGroup("weekly", PayFrequency.WEEKLY, LocalDate.of(2025, 1, 3), List.of(waiting), 2);
+        try (PayGroupScheduler scheduler = new PayGroupScheduler(List.of(group), 2)) {
+            List<PayRun> runs = scheduler.runAll(JANUARY_1, JANUARY_31);
+            assertEquals(5, runs.size());
+            for (PayRun run : runs) {
+                assertEquals(1, run.total(), 0.001);
+            }
+        }
+    }
+
+    /**
+     * Tests that a failure while paying one group fails only that group's result.
+     */
+    @Test
+    void testFailingGroupIsIsolated() {
+        Employee broken = new Employee("Broken", "Record") {
+            @Override
+            public float getPaycheck() {
+                throw new IllegalStateException("corrupt record");
+            }
+        };
+        PayGroup good = new PayGroup("good", PayFrequency.MONTHLY, JANUARY_1,
+                List.of(new SalariedEmployee("John", "Doe", 52000)), 1);
+        PayGroup bad = new PayGroup("bad", PayFrequency.MONTHLY, JANUARY_1, List.of(broken), 1);
+        try (PayGroupScheduler scheduler = new PayGroupScheduler(List.of(good, bad), 1)) {
+            Map<PayGroup, CompletableFuture<List<PayRun>>> results = scheduler.schedule(JANUARY_1, JANUARY_31);
+            assertEquals(1, results.get(good).join().size());
+            assertTrue(results.get(bad).handle((runs, error) -> error != null).join());
+        }
+    }
+}
@@ -0,0 +1,349 @@
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Computes paychecks for a whole roster from primitive column arrays instead of calling `getPaycheck()`
+ * on each object. Employees are grouped by pay type when the kernel is built, and each group is computed
+ * by a straight-line loop over its columns, with no virtual calls, branches or object loads in the loop body.
+ * The loops run through `PayLoops`: when the JVM is started with `--add-modules jdk.incubator.vector`, they use
+ * `VectorPayLoops`, which computes a whole SIMD register of employees per instruction with the Vector API.
+ * Otherwise they use `ScalarPayLoops`, the same arithmetic one employee at a time. Both give identical results.
+ * Build a kernel once with `of`, then call `compute` as often as needed. Changes made to the employees
+ * after that are not seen until the kernel is rebuilt. Calls to `compute` may run concurrently, for example for
+ * several pay dates of one group: a call reuses the scratch arrays of an earlier call when no other call is using
+ * them, and allocates its own otherwise. Build a kernel for a `Roster` with
+ * `roster.read(PayKernel::of)` so its snapshot sees either none or all of a bulk update.
+ * Results match `getPaycheck()` exactly, except that employees who were terminated when the kernel was built are paid 0.
+ */
+public class PayKernel {
+
+    // The loops every kernel uses unless given others; see `loadLoops`
+    static final PayLoops DEFAULT_LOOPS = loadLoops();
+
+    private final PayLoops loops;
+    private final int size;
+
+    private final int[] hourlyIndex;
+    private final float[] hours;
+    private final float[] rates;
+
+    private final int[] salariedIndex;
+    private final float[] salaries;
+
+    private final int[] commissionIndex;
+    private final float[] baseSalaries;
+    private final float[] unitsSold;
+    // Commission schedules padded to the same number of tiers and stored tier-major: tier t of employee i is at t * n + i.
+    // Thresholds are rounded up to whole units, since units sold is a whole number
+    private final int tiers;
+    private final float[] tierThresholds;
+    private final float[] tierRates;
+
+    // Employees of any other type keep using getPaycheck(); terminated employees are kept here as nulls and paid nothing
+    private final int[] otherIndex;
+    private final Employee[] others;
+
+    // Scratch arrays left by the last call to compute, or null while a call is using them
+    private final AtomicReference<Scratch> spare = new AtomicReference<>();
+
+    /**
+     * Per-group results and the commission rate reached, for one call to `compute` at a time.
+     */
+    private static final class Scratch {
+        final float[] hourlyPay;
+        final float[] salariedPay;
+        final float[] commissionPay;
+        final float[] commissionRates;
+
+        Scratch(int hourlyCount, int salariedCount, int commissionCount) {
+            hourlyPay = new float[hourlyCount];
+            salariedPay = new float[salariedCount];
+            commissionPay = new float[commissionCount];
+            commissionRates = new float[commissionCount];
+        }
+    }
+
+    private PayKernel(PayLoops loops, int size, int[] hourlyIndex, float[] hours, float[] rates, int[] salariedIndex, float[] salaries,
+                      int[] commissionIndex, float[] baseSalaries, float[] unitsSold, int tiers,
+                      float[] tierThresholds, float[] tierRates, int[] otherIndex, Employee[] others) {
+        this.loops = loops;
+        this.size = size;
+        this.hourlyIndex = hourlyIndex;
+        this.hours = hours;
+        this.rates = rates;
+        this.salariedIndex = salariedIndex;
+        this.salaries = salaries;
+        this.commissionIndex = commissionIndex;
+        this.baseSalaries = baseSalaries;
+        this.unitsSold = unitsSold;
+        this.tiers = tiers;
+        this.tierThresholds = tierThresholds;
+        this.tierRates = tierRates;
+        this.otherIndex = otherIndex;
+        this.others = others;
+    }
+
+    /**
+     * Returns `VectorPayLoops` if the Vector API module is in the boot layer and the class was compiled,
+     * and `ScalarPayLoops` otherwise. The vector class is loaded by name, so this class never links against
+     * the incubator module when it is absent.
+     */
+    private static PayLoops loadLoops() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (PayLoops) Class.forName("VectorPayLoops").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Compiled without the module; fall back to the scalar loops
+            }
+        }
+        return new ScalarPayLoops();
+    }
+
+    /**
+     * Builds a kernel from the current state of `employeeList`.
+     *
+     * @param employeeList The employees to compute paychecks for.
+     * @return A kernel over a snapshot of the employees' pay data.
+     */
+    public static PayKernel of(List<Employee> employeeList) {
+        return of(employeeList, DEFAULT_LOOPS);
+    }
+
+    /**
+     * Builds a kernel from the current state of `employeeList` that runs `loops`.
+     *
+     * @param employeeList The employees to compute paychecks for.
+     * @param loops The loops to compute each group with.
+     * @return A kernel over a snapshot of the employees' pay data.
+     */
+    static PayKernel of(List<Employee> employeeList, PayLoops loops) {
+        int hourlyCount = 0;
+        int salariedCount = 0;
+        int commissionCount = 0;
+        int tiers = 0;
+        for (Employee employee : employeeList) {
+            if (employee.isTerminated()) {
+                continue;
+            }
+            if (employee instanceof HourlyEmployee) {
+                hourlyCount++;
+            } else if (employee instanceof CommissionEmployee commissionEmployee) {
+                commissionCount++;
+                tiers = Math.max(tiers, commissionEmployee.getCommissionSchedule()[0].length);
+            } else if (employee instanceof SalariedEmployee) {
+                salariedCount++;
+            }
+        }
+        int otherCount = employeeList.size() - hourlyCount - salariedCount - commissionCount;
+
+        int[] hourlyIndex = new int[hourlyCount];
+        float[] hours = new float[hourlyCount];
+        float[] rates = new float[hourlyCount];
+        int[] salariedIndex = new int[salariedCount];
+        float[] salaries = new float[salariedCount];
+        int[] commissionIndex = new int[commissionCount];
+        float[] baseSalaries = new float[commissionCount];
+        float[] unitsSold = new float[commissionCount];
+        float[] tierThresholds = new float[tiers * commissionCount];
+        float[] tierRates = new float[tiers * commissionCount];
+        int[] otherIndex = new int[otherCount];
+        Employee[] others = new Employee[otherCount];
+
+        int h = 0;
+        int s = 0;
+        int c = 0;
+        int o = 0;
+        int i = 0;
+        for (Employee employee : employeeList) {
+            if (employee.isTerminated()) {
+                // A null entry marks a tombstone
+                otherIndex[o] = i;
+                o++;
+            } else if (employee instanceof HourlyEmployee hourlyEmployee) {
+                hourlyIndex[h] = i;
+                hours[h] = hourlyEmployee.getPaidHours();
+                rates[h] = hourlyEmployee.getRate();
+                h++;
+            } else if (employee instanceof CommissionEmployee commissionEmployee) {
+                commissionIndex[c] = i;
+                baseSalaries[c] = commissionEmployee.getSalary();
+                unitsSold[c] = commissionEmployee.getUnitsSold();
+                float[][] schedule = commissionEmployee.getCommissionSchedule();
+                // getPaycheck() stops at the first threshold above the units sold, so a tier only applies
+                // if every threshold up to it has been reached; a running maximum of the thresholds encodes that
+                float reached = Float.NEGATIVE_INFINITY;
+                for (int t = 0; t < tiers; t++) {
+                    if (t < schedule[0].length) {
+                        reached = Math.max(reached, schedule[0][t]);
+                        tierThresholds[t * commissionCount + c] = (float) Math.ceil(reached);
+                        tierRates[t * commissionCount + c] = schedule[1][t];
+                    } else {
+                        // Padding tiers can never be reached
+                        tierThresholds[t * commissionCount + c] = Float.POSITIVE_INFINITY;
+                    }
+                }
+                c++;
+            } else if (employee instanceof SalariedEmployee salariedEmployee) {
+                salariedIndex[s] = i;
+                salaries[s] = salariedEmployee.getSalary();
+                s++;
+            } else {
+                otherIndex[o] = i;
+                others[o] = employee;
+                o++;
+            }
+            i++;
+        }
+        return new PayKernel(loops, employeeList.size(), hourlyIndex, hours, rates, salariedIndex, salaries,
+                commissionIndex, baseSalaries, unitsSold, tiers, tierThresholds, tierRates, otherIndex, others);
+    }
+
+    /**
+     * Returns the number of employees in the kernel.
+     *
+     * @return The number of employees.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Computes every employee's paycheck.
+     *
+     * @return The paychecks, in the same order as the list the kernel was built from.
+     */
+    public float[] compute() {
+        float[] paychecks = new float[size];
+        compute(paychecks);
+        return paychecks;
+    }
+
+    /**
+     * Computes every employee's biweekly paycheck into `paychecks`, in the same order as the list the kernel was built from.
+     *
+     * @param paychecks The array to fill, at least `size()` long.
+     */
+    public void compute(float[] paychecks) {
+        compute(paychecks, PayFrequency.BIWEEKLY);
+    }
+
+    /**
+     * Computes every employee's paycheck for a group paid at `frequency` into `paychecks`,
+     * in the same order as the list the kernel was built from.
+     *
+     * @param paychecks The array to fill, at least `size()` long.
+     * @param frequency How often the employees are paid.
+     */
+    public void compute(float[] paychecks, PayFrequency frequency) {
+        Scratch scratch = spare.getAndSet(null);
+        if (scratch == null) {
+            scratch = new Scratch(hours.length, salaries.length, baseSalaries.length);
+        }
+        int periods = frequency.periodsPerYear();
+        loops.hourly(hours, rates, scratch.hourlyPay);
+        scatter(scratch.hourlyPay, hourlyIndex, paychecks);
+
+        loops.salaried(salaries, periods, scratch.salariedPay);
+        scatter(scratch.salariedPay, salariedIndex, paychecks);
+
+        loops.commission(baseSalaries, unitsSold, tiers, tierThresholds, tierRates, periods,
+                scratch.commissionRates, scratch.commissionPay);
+        scatter(scratch.commissionPay, commissionIndex, paychecks);
+        spare.set(scratch);
+
+        for (int o = 0; o < others.length; o++) {
+            paychecks[otherIndex[o]] = others[o] == null ? 0 : others[o].getPaycheck(frequency);
+        }
+    }
+
+    private static void scatter(float[] values, int[] index, float[] out) {
+        for (int i = 0; i < values.length; i++) {
+            out[index[i]] = values[i];
+        }
+    }
+}
+
+/**
+ * The arithmetic `PayKernel` runs over each pay group's columns. Implementations must give exactly the results
+ * of `ScalarPayLoops`, so a kernel pays the same whichever loops it was built with.
+ */
+interface PayLoops {
+
+    /**
+     * Computes hours times rate for the hourly group.
+     *
+     * @param hours The hours worked, one entry per hourly employee.
+     * @param rates The hourly rates.
+     * @param out The array to fill, one entry per hourly employee.
+     */
+    void hourly(float[] hours, float[] rates, float[] out);
+
+    /**
+     * Computes salary divided by the number of pay periods per year for the salaried group.
+     *
+     * @param salaries The annual salaries, one entry per salaried employee.
+     * @param periods The number of pay periods per year.
+     * @param out The array to fill, one entry per salaried employee.
+     */
+    void salaried(float[] salaries, int periods, float[] out);
+
+    /**
+     * Computes base salary divided by the number of pay periods per year plus commission for the commission group.
+     * The tier lookup runs one tier at a time across all employees as a masked multiply-add. Since units and
+     * thresholds are whole numbers, `min(1, max(0, units - threshold + 1))` is exactly 1 when a tier is reached
+     * and 0 otherwise, and `mask * tierRate + (1 - mask) * rate` then either takes the tier's rate or keeps the
+     * rate so far, exactly. Every load in the loop is contiguous, so it has no branches and no gathers.
+     *
+     * @param baseSalaries The annual base salaries, one entry per commission employee.
+     * @param unitsSold The units sold.
+     * @param tiers The number of tiers in every schedule.
+     * @param tierThresholds The tier thresholds, tier-major: tier t of employee i is at t * n + i.
+     * @param tierRates The tier rates, in the same layout as the thresholds.
+     * @param periods The number of pay periods per year.
+     * @param rate Scratch space for the rate each employee has reached, one entry per commission employee.
+     * @param out The array to fill, one entry per commission employee.
+     */
+    void commission(float[] baseSalaries, float[] unitsSold, int tiers, float[] tierThresholds, float[] tierRates,
+                    int periods, float[] rate, float[] out);
+}
+
+/**
+ * The ScalarPayLoops class computes one employee at a time. It runs on any JVM, and HotSpot's superword
+ * optimisation may still compile the loops to SIMD instructions.
+ */
+class ScalarPayLoops implements PayLoops {
+
+    @Override
+    public void hourly(float[] hours, float[] rates, float[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = hours[i] * rates[i];
+        }
+    }
+
+    @Override
+    public void salaried(float[] salaries, int periods, float[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = salaries[i] / periods;
+        }
+    }
+
+    @Override
+    public void commission(float[] baseSalaries, float[] unitsSold, int tiers, float[] tierThresholds, float[] tierRates,
+                           int periods, float[] rate, float[] out) {
+        int n = out.length;
+        for (int i = 0; i < n; i++) {
+            rate[i] = 0f;
+        }
+        for (int t = 0; t < tiers; t++) {
+            int offset = t * n;
+            for (int i = 0; i < n; i++) {
+                float reached = Math.min(1f, Math.max(0f, unitsSold[i] - tierThresholds[offset + i] + 1f));
+                rate[i] = reached * tierRates[offset + i] + (1f - reached) * rate[i];
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            out[i] = baseSalaries[i] / periods + rate[i] * unitsSold[i];
+        }
+    }
+}
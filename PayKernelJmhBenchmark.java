@@ -0,0 +1,75 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * JMH benchmark comparing paychecks computed through `getPaycheck()` on each object with `PayKernel` running
+ * the scalar and the Vector API loops. The `commission` roster holds only commission employees, which isolates
+ * the tier lookup; the `mixed` roster is the generated roster the other benchmarks use.
+ * Needs the JMH jars on the class path; see the README for the commands.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class PayKernelJmhBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"mixed", "commission"})
+    public String roster;
+
+    private List<Employee> employees;
+    private PayKernel scalar;
+    private PayKernel vector;
+    private float[] paychecks;
+
+    @Setup
+    public void setUp() {
+        employees = GeneratedRosterSource.generate(size, 42);
+        if (roster.equals("commission")) {
+            employees.removeIf(employee -> !(employee instanceof CommissionEmployee));
+        }
+        scalar = PayKernel.of(employees, new ScalarPayLoops());
+        vector = PayKernel.of(employees);
+        if (PayKernel.DEFAULT_LOOPS instanceof ScalarPayLoops) {
+            throw new IllegalStateException("The Vector API loops are not available; run with --add-modules jdk.incubator.vector");
+        }
+        paychecks = new float[employees.size()];
+    }
+
+    @Benchmark
+    public float[] perObject() {
+        for (int i = 0; i < paychecks.length; i++) {
+            paychecks[i] = employees.get(i).getPaycheck();
+        }
+        return paychecks;
+    }
+
+    @Benchmark
+    public float[] scalarKernel() {
+        scalar.compute(paychecks);
+        return paychecks;
+    }
+
+    @Benchmark
+    public float[] vectorKernel() {
+        vector.compute(paychecks);
+        return paychecks;
+    }
+}
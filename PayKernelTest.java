@@ -0,0 +1,107 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class that contains unit tests for PayKernel. Each test checks that the column-based
+ * paychecks are exactly the values `getPaycheck()` returns for the same employees.
+ */
+class PayKernelTest {
+
+    /**
+     * Tests that the kernel matches `getPaycheck()` for a mixed roster, in the original order.
+     */
+    @Test
+    void testKernelMatchesGetPaycheck() {
+        List<Employee> roster = GeneratedRosterSource.generate(5000, 11);
+        float[] paychecks = PayKernel.of(roster).compute();
+        for (int i = 0; i < roster.size(); i++) {
+            assertEquals(roster.get(i).getPaycheck(), paychecks[i]);
+        }
+    }
+
+    /**
+     * Tests commission schedules of different lengths, and a schedule whose thresholds are out of order,
+     * where `getPaycheck()` stops at the first threshold above the units sold.
+     */
+    @Test
+    void testKernelCommissionTiers() {
+        List<Employee> roster = new ArrayList<>();
+        float[][] shortSchedule = {{10, 100}, {.5f, 1.2f}};
+        float[][] longSchedule = {{0, 12, 25, 47, 70, 100}, {1, 3.3f, 4.1f, 4.7f, 5.5f, 7}};
+        float[][] unordered = {{10, 200, 50}, {1, 2, 3}};
+        for (int units : new int[]{0, 5, 10, 30, 60, 99, 100, 150, 250}) {
+            for (float[][] schedule : new float[][][]{shortSchedule, longSchedule, unordered}) {
+                CommissionEmployee emp = new CommissionEmployee("Chris", "Evans", 48000, schedule);
+                emp.setUnitsSold(units);
+                roster.add(emp);
+            }
+        }
+        PayKernel kernel = PayKernel.of(roster);
+        float[] weekly = new float[roster.size()];
+        kernel.compute(weekly, PayFrequency.WEEKLY);
+        // A second run reuses the kernel's scratch arrays and must not see the first run's values
+        float[] paychecks = kernel.compute();
+        for (int i = 0; i < roster.size(); i++) {
+            assertEquals(roster.get(i).getPaycheck(), paychecks[i]);
+            assertEquals(roster.get(i).getPaycheck(PayFrequency.WEEKLY), weekly[i]);
+        }
+    }
+
+    /**
+     * Tests that concurrent calls to `compute` on one kernel, each for a different frequency, all get their own
+     * frequency's paychecks.
+     */
+    @Test
+    void testConcurrentCompute() throws InterruptedException {
+        List<Employee> roster = GeneratedRosterSource.generate(5000, 12);
+        PayKernel kernel = PayKernel.of(roster);
+        PayFrequency[] frequencies = PayFrequency.values();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (PayFrequency frequency : frequencies) {
+            threads.add(new Thread(() -> {
+                try {
+                    float[] paychecks = new float[kernel.size()];
+                    for (int round = 0; round < 50; round++) {
+                        kernel.compute(paychecks, frequency);
+                        for (int i = 0; i < roster.size(); i++) {
+                            assertEquals(roster.get(i).getPaycheck(frequency), paychecks[i]);
+                        }
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), failures.toString());
+    }
+
+    /**
+     * Tests that the Vector API loops are used when the JVM has the module, and that the default loops give exactly
+     * the scalar results for group sizes that leave every possible remainder after the last full register.
+     */
+    @Test
+    void testDefaultLoopsMatchScalar() {
+        boolean vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        assertEquals(vectorModule ? "VectorPayLoops" : "ScalarPayLoops", PayKernel.DEFAULT_LOOPS.getClass().getName());
+        for (int size = 0; size <= 70; size++) {
+            List<Employee> roster = GeneratedRosterSource.generate(size * 3, size);
+            for (PayFrequency frequency : PayFrequency.values()) {
+                float[] expected = new float[roster.size()];
+                float[] actual = new float[roster.size()];
+                PayKernel.of(roster, new ScalarPayLoops()).compute(expected, frequency);
+                PayKernel.of(roster, PayKernel.DEFAULT_LOOPS).compute(actual, frequency);
+                assertArrayEquals(expected, actual);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+import java.util.List;
+import java.util.stream.IntStream;
+
+
+/**
+ * Turns gross pay from `Employee.getPaycheck()` into net pay by running a configurable chain of `PayStage`s,
+ * such as pre-tax deductions, bracketed tax withholding and post-tax deductions.
+ * Employees are processed in batches over primitive arrays: gross pay is read once per employee,
+ * then each stage makes a single pass over the batch. Batches can run in parallel, and because every
+ * stage only touches its own batch's slots, the results are the same either way.
+ * To pay a `Roster` without seeing half of a bulk update, run it through `Roster.read`.
+ * Terminated employees keep their slot in the results with every amount 0.
+ */
+public class PayPipeline {
+
+    // Number of employees per batch; large enough to amortise task overhead, small enough to stay in cache
+    static final int BATCH_SIZE = 4096;
+
+    private final PayStage[] stages;
+
+    /**
+     * Constructs a pipeline that applies `stages` in order.
+     *
+     * @param stages The stages to apply to gross pay.
+     */
+    public PayPipeline(PayStage... stages) {
+        this.stages = stages.clone();
+    }
+
+    /**
+     * Constructs a pipeline that applies `stages` in order.
+     *
+     * @param stages The stages to apply to gross pay.
+     */
+    public PayPipeline(List<PayStage> stages) {
+        this(stages.toArray(new PayStage[0]));
+    }
+
+    /**
+     * Runs the pipeline over `employeeList`.
+     *
+     * @param employeeList The employees to pay. Hours and units sold should already be filled in.
+     * @param parallel If true, batches run in parallel on the common fork/join pool.
+     * @return The gross-to-net breakdown for each employee, in the same order as `employeeList`.
+     */
+    public PayBatch run(List<Employee> employeeList, boolean parallel) {
+        Employee[] employees = employeeList.toArray(new Employee[0]);
+        PayBatch result = new PayBatch(employees.length);
+        int batches = (employees.length + BATCH_SIZE - 1) / BATCH_SIZE;
+        IntStream range = IntStream.range(0, batches);
+        (parallel ? range.parallel() : range).forEach(b -> {
+            int from = b * BATCH_SIZE;
+            int to = Math.min(from + BATCH_SIZE, employees.length);
+            runBatch(employees, result.slice(from, to));
+        });
+        return result;
+    }
+
+    private void runBatch(Employee[] employees, PayBatch batch) {
+        for (int i = batch.from; i < batch.to; i++) {
+            batch.employeeNumbers[i] = employees[i].getEmployeeNumber();
+            // Terminated employees are paid nothing
+            batch.gross[i] = employees[i].isTerminated() ? 0 : employees[i].getPaycheck();
+            batch.taxable[i] = batch.gross[i];
+        }
+        for (PayStage stage : stages) {
+            stage.apply(batch);
+        }
+        for (int i = batch.from; i < batch.to; i++) {
+            batch.net[i] = batch.gross[i] - batch.preTax[i] - batch.tax[i] - batch.postTax[i];
+        }
+    }
+}
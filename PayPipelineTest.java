@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class that contains unit tests for PayPipeline and its stages. The tests check the
+ * gross-to-net breakdown for single employees and that parallel runs match sequential runs.
+ */
+class PayPipelineTest {
+
+    /**
+     * Tests that bracketed withholding taxes each slice of pay at its own marginal rate,
+     * using both the linear and the binary search bracket lookup.
+     */
+    @Test
+    void testBracketWithholdingTaxOn() {
+        BracketWithholding shortTable = new BracketWithholding(new float[]{100, 1000}, new float[]{.1f, .2f});
+        assertEquals(0, shortTable.taxOn(50));
+        assertEquals(40, shortTable.taxOn(500), 0.001);
+        assertEquals(90 + 100, shortTable.taxOn(1500), 0.001);
+
+        float[] thresholds = new float[BracketWithholding.LINEAR_SEARCH_LIMIT + 4];
+        float[] rates = new float[thresholds.length];
+        for (int i = 0; i < thresholds.length; i++) {
+            thresholds[i] = i * 100;
+            rates[i] = .01f;
+        }
+        BracketWithholding longTable = new BracketWithholding(thresholds, rates);
+        assertEquals(12.5f, longTable.taxOn(1250), 0.001);
+        assertEquals(10, longTable.taxOn(1000), 0.001);
+    }
+
+    /**
+     * Tests the full breakdown for one salaried employee: 5% pre-tax, a flat 10% tax, then $20 post-tax.
+     */
+    @Test
+    void testGrossToNet() {
+        SalariedEmployee emp = new SalariedEmployee("John", "Doe", 52000);
+        PayPipeline pipeline = new PayPipeline(
+                new PreTaxDeduction(.05f, 0),
+                new BracketWithholding(new float[]{0}, new float[]{.1f}),
+                new PostTaxDeduction(0, 20));
+        PayBatch result = pipeline.run(List.of(emp), false);
+        assertEquals(2000, result.getGross(0), 0.001);
+        assertEquals(100, result.getPreTax(0), 0.001);
+        assertEquals(190, result.getTax(0), 0.001);
+        assertEquals(20, result.getPostTax(0), 0.001);
+        assertEquals(1690, result.getNet(0), 0.001);
+    }
+
+    /**
+     * Tests that deductions and withholding larger than the pay left are capped, so net pay never goes negative.
+     */
+    @Test
+    void testDeductionsNeverExceedPay() {
+        HourlyEmployee emp = new HourlyEmployee("Ann", "Lee", 10);
+        emp.setHours(5);
+        PayBatch result = new PayPipeline(new PreTaxDeduction(0, 30), new PostTaxDeduction(0, 30))
+                .run(List.of(emp), false);
+        assertEquals(30, result.getPreTax(0), 0.001);
+        assertEquals(20, result.getPostTax(0), 0.001);
+        assertEquals(0, result.getNet(0), 0.001);
+
+        // A rate above 100%, or tax already withheld by an earlier stage, cannot take more than the pay left
+        PayBatch overTaxed = new PayPipeline(
+                new BracketWithholding(new float[]{0}, new float[]{.6f}),
+                new BracketWithholding(new float[]{0}, new float[]{.6f}),
+                new BracketWithholding(new float[]{0, 10}, new float[]{1, 2}))
+                .run(List.of(emp), false);
+        assertEquals(50, overTaxed.getTax(0), 0.001);
+        assertEquals(0, overTaxed.getNet(0), 0.001);
+
+        // A pre-tax deduction after withholding is capped by the pay left, not only by the taxable pay
+        emp.setHours(10);
+        PayBatch taxedFirst = new PayPipeline(
+                new BracketWithholding(new float[]{0}, new float[]{.3f}),
+                new PreTaxDeduction(1, 0))
+                .run(List.of(emp), false);
+        assertEquals(30, taxedFirst.getTax(0), 0.001);
+        assertEquals(70, taxedFirst.getPreTax(0), 0.001);
+        assertEquals(0, taxedFirst.getNet(0), 0.001);
+    }
+
+    /**
+     * Tests that running the pipeline in parallel gives exactly the same results as running it sequentially.
+     */
+    @Test
+    void testParallelMatchesSequential() {
+        List<Employee> roster = GeneratedRosterSource.generate(PayPipeline.BATCH_SIZE * 5 + 17, 3);
+        PayPipeline pipeline = new PayPipeline(
+                new PreTaxDeduction(.05f, 120),
+                new BracketWithholding(new float[]{0, 450, 1800, 3800}, new float[]{.10f, .12f, .22f, .24f}),
+                new PostTaxDeduction(.01f, 15));
+        PayBatch sequential = pipeline.run(roster, false);
+        PayBatch parallel = pipeline.run(roster, true);
+        for (int i = 0; i < roster.size(); i++) {
+            assertEquals(sequential.getNet(i), parallel.getNet(i));
+        }
+        assertEquals(sequential.totalNet(), parallel.totalNet());
+    }
+}
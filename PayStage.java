@@ -0,0 +1,170 @@
+import java.util.Arrays;
+
+
+/**
+ * One step of a `PayPipeline`, such as a deduction or a tax withholding.
+ * A stage works on a whole batch of employees at once through the primitive arrays of a `PayBatch`,
+ * so a pipeline makes one call per stage per batch instead of one call per employee.
+ * Stages must only read and write the slots in `[batch.from, batch.to)`, which keeps batches independent
+ * and makes sequential and parallel runs produce identical results.
+ */
+public interface PayStage {
+
+    /**
+     * Applies this stage to every employee in the batch.
+     *
+     * @param batch The batch to update.
+     */
+    void apply(PayBatch batch);
+}
+
+/**
+ * The PreTaxDeduction class withholds a percentage of gross pay plus a flat amount before taxes,
+ * for example a retirement contribution or a benefits premium. The deduction never exceeds the remaining taxable pay
+ * or the pay left after earlier stages.
+ */
+class PreTaxDeduction implements PayStage {
+
+    private final float percent;
+    private final float flat;
+
+    /**
+     * Constructs a PreTaxDeduction.
+     *
+     * @param percent The fraction of gross pay to deduct, for example 0.05 for 5%.
+     * @param flat The fixed amount to deduct each pay period.
+     */
+    public PreTaxDeduction(float percent, float flat) {
+        this.percent = percent;
+        this.flat = flat;
+    }
+
+    @Override
+    public void apply(PayBatch batch) {
+        float[] gross = batch.gross;
+        float[] taxable = batch.taxable;
+        float[] preTax = batch.preTax;
+        float[] tax = batch.tax;
+        float[] postTax = batch.postTax;
+        for (int i = batch.from; i < batch.to; i++) {
+            float remaining = Math.min(taxable[i], gross[i] - preTax[i] - tax[i] - postTax[i]);
+            float amount = Math.min(gross[i] * percent + flat, Math.max(remaining, 0));
+            preTax[i] += amount;
+            taxable[i] -= amount;
+        }
+    }
+}
+
+/**
+ * The BracketWithholding class withholds tax on taxable pay using marginal brackets.
+ * The brackets are compiled up front into the tax owed at the start of each bracket, so each employee
+ * needs one bracket lookup and one multiply-add instead of summing the tax bracket by bracket.
+ * Long tables are searched with a binary search. The tax never exceeds the pay left after earlier stages.
+ */
+class BracketWithholding implements PayStage {
+
+    // Tables up to this many brackets are searched linearly
+    static final int LINEAR_SEARCH_LIMIT = 16;
+
+    private final float[] thresholds;
+    private final float[] rates;
+    private final float[] baseTax;
+
+    /**
+     * Constructs a BracketWithholding from per-period brackets.
+     * Pay between `thresholds[i]` and `thresholds[i + 1]` is taxed at `rates[i]`; pay above the last threshold
+     * is taxed at the last rate, and pay below the first threshold is not taxed.
+     *
+     * @param thresholds The start of each bracket, in ascending order.
+     * @param rates The marginal rate of each bracket.
+     */
+    public BracketWithholding(float[] thresholds, float[] rates) {
+        if (thresholds.length == 0 || thresholds.length != rates.length) {
+            throw new IllegalArgumentException("thresholds and rates must be non-empty and the same length");
+        }
+        for (int i = 1; i < thresholds.length; i++) {
+            if (thresholds[i] <= thresholds[i - 1]) {
+                throw new IllegalArgumentException("thresholds must be in ascending order");
+            }
+        }
+        this.thresholds = thresholds.clone();
+        this.rates = rates.clone();
+        this.baseTax = new float[thresholds.length];
+        for (int i = 1; i < thresholds.length; i++) {
+            baseTax[i] = baseTax[i - 1] + (thresholds[i] - thresholds[i - 1]) * rates[i - 1];
+        }
+    }
+
+    @Override
+    public void apply(PayBatch batch) {
+        float[] gross = batch.gross;
+        float[] taxable = batch.taxable;
+        float[] preTax = batch.preTax;
+        float[] tax = batch.tax;
+        float[] postTax = batch.postTax;
+        for (int i = batch.from; i < batch.to; i++) {
+            float remaining = gross[i] - preTax[i] - tax[i] - postTax[i];
+            tax[i] += Math.min(taxOn(taxable[i]), Math.max(remaining, 0));
+        }
+    }
+
+    /**
+     * Returns the tax owed on `pay` for one pay period.
+     *
+     * @param pay The taxable pay.
+     * @return The tax to withhold.
+     */
+    float taxOn(float pay) {
+        int bracket;
+        if (thresholds.length <= LINEAR_SEARCH_LIMIT) {
+            // Counting thresholds at or below the pay has no data-dependent branches, which beats a binary search on short tables
+            bracket = -1;
+            for (float threshold : thresholds) {
+                bracket += pay >= threshold ? 1 : 0;
+            }
+        } else {
+            bracket = Arrays.binarySearch(thresholds, pay);
+            if (bracket < 0) {
+                // Not an exact threshold: the bracket is the one starting just below the insertion point
+                bracket = -bracket - 2;
+            }
+        }
+        if (bracket < 0) {
+            return 0;
+        }
+        return baseTax[bracket] + (pay - thresholds[bracket]) * rates[bracket];
+    }
+}
+
+/**
+ * The PostTaxDeduction class withholds a percentage of gross pay plus a flat amount after taxes,
+ * for example a garnishment or union dues. The deduction never exceeds the pay left after earlier stages.
+ */
+class PostTaxDeduction implements PayStage {
+
+    private final float percent;
+    private final float flat;
+
+    /**
+     * Constructs a PostTaxDeduction.
+     *
+     * @param percent The fraction of gross pay to deduct, for example 0.01 for 1%.
+     * @param flat The fixed amount to deduct each pay period.
+     */
+    public PostTaxDeduction(float percent, float flat) {
+        this.percent = percent;
+        this.flat = flat;
+    }
+
+    @Override
+    public void apply(PayBatch batch) {
+        float[] gross = batch.gross;
+        float[] preTax = batch.preTax;
+        float[] tax = batch.tax;
+        float[] postTax = batch.postTax;
+        for (int i = batch.from; i < batch.to; i++) {
+            float remaining = gross[i] - preTax[i] - tax[i] - postTax[i];
+            postTax[i] += Math.min(gross[i] * percent + flat, Math.max(remaining, 0));
+        }
+    }
+}
@@ -1,4 +1,6 @@
+import java.nio.file.Path;
 import java.util.*;
+import java.util.stream.Collectors;
 public class Payroll {
     // Create reference to user input through Scanner class
     static Scanner input = new Scanner(System.in);
@@ -88,7 +90,7 @@ public class Payroll {
      * - Catches invalid formats and displays appropriate error messages to the console.
      * - Restarts commission schedule input if "q" is entered midway.
      * Dependencies:
-     * - `employeeList`: A list to store created employee instances.
+     * - `roster`: The roster that stores created employee instances.
      * - `CommissionEmployee`: Represents commissioned employees.
      * - `input`: A Scanner instance for capturing user input.
      */
@@ -209,7 +211,7 @@ public class Payroll {
                 }
                 //System.out.println(Arrays.deepToString(schedule));
             }
-            employeeList.add(new CommissionEmployee(firstN, lastN, salaryWage, schedule));
+            roster.add(new CommissionEmployee(firstN, lastN, salaryWage, schedule));
             //System.out.printf(String.valueOf(employeeList.getLast()));
         }
     }
@@ -227,7 +229,7 @@ public class Payroll {
      * 5. If matches are found, prints each matching employee's first name, last name, and employee number.
      *    If no matches are found, displays a message indicating no results.
      * Dependencies:
-     * - `EmployeeSorter.quicksort()`: Sorts the employee list by last name.
+     * - `Roster.sort()`: Sorts the employee list by last name.
      * - `EmployeeSearch.sequentialSearchByLastName()`: Performs a search for employees by last name.
      * - `menu()`: Returns to the main menu if the user inputs "q".
      * Error Handling:
@@ -240,8 +242,8 @@ public class Payroll {
         if (userIn.equals("q")) {
             menu();
         } else if (userIn.matches("^[A-Za-z-]+")) {
-            EmployeeSorter.quicksort(employeeList, 0, employeeList.size() - 1, false);
-            List<Employee> foundEmployees = EmployeeSearch.sequentialSearchByLastName(employeeList, userIn);
+            roster.sort(false);
+            List<Employee> foundEmployees = roster.read(employeeList -> EmployeeSearch.sequentialSearchByLastName(employeeList, userIn));
 
             if (!foundEmployees.isEmpty()) {
                 System.out.println("Employees with last name " + userIn + ":");
@@ -264,15 +266,17 @@ public class Payroll {
      * 1. Prompts the user to enter an employee ID. Input is expected as a numeric string.
      * 2. Allows the user to type "q" to return to the main menu.
      * 3. Validates the input format to ensure it contains only numeric characters.
-     * 4. If valid:
+     * 4. If valid and the roster has finished loading:
      *    - Sorts the `employeeList` by employee ID.
      *    - Searches for the specified employee ID using binary search.
+     *    While the roster is still loading, waits only until the requested ID has been loaded.
      * 5. If a match is found, displays the employee’s details. If no match is found, displays an error message.
      * Error Handling:
      * - Checks for non-numeric input and recursively prompts the user to enter valid input.
      * Dependencies:
-     * - `EmployeeSorter.quicksort()`: Sorts the employee list by ID before the search.
+     * - `Roster.sort()`: Sorts the employee list by ID before the search.
      * - `EmployeeSearch.binarySearchByID()`: Performs the binary search for the specified employee ID.
+     * - `Roster.findByID()`: Looks up the employee while the roster is still loading.
      * - `menu()`: Returns to the main menu if the user inputs "q".
      */
     public static void employeeByID() {
@@ -281,8 +285,15 @@ public class Payroll {
         if (userIn.equals("q")) {
             menu();
         } else if (userIn.matches("[0-9]+")) {
-            EmployeeSorter.quicksort(employeeList, 0, employeeList.size() - 1, true);
-            Employee foundEmployee = EmployeeSearch.binarySearchByID(employeeList, Integer.parseInt(userIn));
+            Employee foundEmployee;
+            if (roster.isLoaded()) {
+                roster.sort(true);
+                int id = Integer.parseInt(userIn);
+                foundEmployee = roster.read(employeeList -> EmployeeSearch.binarySearchByID(employeeList, id));
+            } else {
+                // Only wait for the loader to reach this ID instead of the whole roster
+                foundEmployee = roster.findByID(Integer.parseInt(userIn));
+            }
 
             if (foundEmployee != null) {
                 System.out.println(foundEmployee.toString());
@@ -301,17 +312,18 @@ public class Payroll {
      * the employees by paycheck amount in descending order.
      * Process:
      * 1. Displays instructions to the user about the input requirements for each employee type.
-     * 2. Iterates through the `employeeList`, checking each employee's type:
+     * 2. Iterates through the `employeeList`, skipping terminated employees and checking each employee's type:
      *    - For `HourlyEmployee`: Prompts the user to enter hours worked and updates the employee's hours.
      *    - For `CommissionEmployee`: Prompts the user to enter units sold and updates the employee's units sold.
      * 3. If an invalid input is entered (e.g., non-numeric), the method restarts from the beginning.
-     * 4. After successful input for all employees, sorts `employeeList` by paycheck in descending order.
+     * 4. After successful input for all employees, sorts a copy of the active employees by paycheck in descending
+     *    order, leaving the roster's own list untouched.
      * Error Handling:
      * - Catches invalid input formats for hours and units sold (e.g., non-numeric values).
      * - If an error occurs during input, the method restarts, requiring the user to re-enter all data.
      * Dependencies:
-     * - `employeeList`: The list of all employees.
-     * - `sortByPaycheck(employeeList)`: Sorts the list of employees by paycheck amount in descending order.
+     * - `roster`: Provides the list of all employees, waiting for it to finish loading.
+     * - `sortByPaycheck(paid)`: Sorts the copy of the active employees by paycheck amount in descending order.
      * Warnings:
      * - Any error in input will restart the method, requiring all inputs to be re-entered from scratch.
      */
@@ -322,7 +334,11 @@ public class Payroll {
                 Take Care! An error will require restarting the payroll method
                 
                 """);
+        List<Employee> employeeList = roster.employees();
         for (Employee employee : employeeList) {
+            if (employee.isTerminated()) {
+                continue;
+            }
             if (employee instanceof HourlyEmployee hourlyEmployee) {
                 System.out.printf("How many hours did %s %s work?", employee.getFirstName(), employee.getLastName());
                 try {
@@ -340,67 +356,28 @@ public class Payroll {
                 }
             }
         }
-        EmployeeSorter.sortByPaycheck(employeeList);
+        List<Employee> paid = roster.read(list -> list.stream()
+                .filter(employee -> !employee.isTerminated())
+                .collect(Collectors.toList()));
+        EmployeeSorter.sortByPaycheck(paid);
         System.out.println("End of Payroll");
     }
-    // Create a list of employees to use in sorting and display functions
-    static List<Employee> employeeList = new ArrayList<>();
-    static {
-        employeeList.add(new CommissionEmployee("Eric", "Wilson", 65000, new float[][]{{10, 100, 200, 400}, {.5f, 1.2f, 2f, 3f}}));
-        employeeList.add(new CommissionEmployee("Sarah", "Johnson", 67000, new float[][]{{20, 150, 300, 500}, {0.6f, 1.5f, 2.2f, 3.1f}}));
-        employeeList.add(new CommissionEmployee("Liam", "Baker", 62000, new float[][]{{30, 120, 250, 450}, {0.8f, 1.3f, 2.0f, 3.2f}}));
-        employeeList.add(new CommissionEmployee("Emma", "Hughes", 69000, new float[][]{{15, 130, 280, 420}, {0.7f, 1.4f, 2.1f, 3.0f}}));
-        employeeList.add(new CommissionEmployee("Noah", "Davis", 66000, new float[][]{{25, 160, 290, 460}, {0.9f, 1.6f, 2.3f, 3.4f}}));
-        employeeList.add(new CommissionEmployee("Olivia", "Martin", 64000, new float[][]{{10, 140, 260, 410}, {0.5f, 1.2f, 2.1f, 2.8f}}));
-        employeeList.add(new CommissionEmployee("James", "Walker", 70000, new float[][]{{20, 100, 300, 600}, {0.6f, 1.0f, 2.5f, 3.5f}}));
-        employeeList.add(new CommissionEmployee("Sophia", "Hall", 71000, new float[][]{{15, 110, 210, 310}, {0.7f, 1.1f, 1.8f, 2.6f}}));
-        employeeList.add(new CommissionEmployee("Mason", "Young", 68000, new float[][]{{20, 90, 230, 370}, {0.9f, 1.2f, 2.0f, 2.9f}}));
-        employeeList.add(new CommissionEmployee("Isabella", "Scott", 65000, new float[][]{{10, 100, 200, 400}, {0.5f, 1.3f, 1.9f, 2.7f}}));
-        employeeList.add(new CommissionEmployee("Benjamin", "Green", 66000, new float[][]{{20, 120, 270, 450}, {0.6f, 1.4f, 2.2f, 3.3f}}));
-        employeeList.add(new CommissionEmployee("Amelia", "Adams", 72000, new float[][]{{15, 110, 250, 480}, {0.8f, 1.5f, 2.4f, 3.1f}}));
-        employeeList.add(new SalariedEmployee("Nathan", "Diamond", 122000));
-        employeeList.add(new SalariedEmployee("Lily", "Turner", 87000));
-        employeeList.add(new SalariedEmployee("Jack", "Peterson", 94000));
-        employeeList.add(new SalariedEmployee("Sophia", "Ross", 102000));
-        employeeList.add(new SalariedEmployee("Ethan", "Morris", 110000));
-        employeeList.add(new SalariedEmployee("Ava", "Reed", 96000));
-        employeeList.add(new SalariedEmployee("William", "Nguyen", 115000));
-        employeeList.add(new SalariedEmployee("Chloe", "Kim", 98000));
-        employeeList.add(new SalariedEmployee("Lucas", "Adams", 99000));
-        employeeList.add(new SalariedEmployee("Ella", "Parker", 105000));
-        employeeList.add(new SalariedEmployee("Daniel", "Long", 93000));
-        employeeList.add(new SalariedEmployee("Emily", "Hernandez", 92000));
-        employeeList.add(new SalariedEmployee("Mia", "Ramirez", 101000));
-        employeeList.add(new SalariedEmployee("Matthew", "Carter", 108000));
-        employeeList.add(new SalariedEmployee("Zoe", "Murphy", 97000));
-        employeeList.add(new SalariedEmployee("James", "Bailey", 112000));
-        employeeList.add(new SalariedEmployee("Grace", "Wright", 107000));
-        employeeList.add(new SalariedEmployee("Samuel", "Bell", 95000));
-        employeeList.add(new SalariedEmployee("Victoria", "Ross", 103000));
-        employeeList.add(new SalariedEmployee("Henry", "Sanders", 100000));
-        employeeList.add(new HourlyEmployee("Jessica", "Mason", 17.5f));
-        employeeList.add(new HourlyEmployee("Oliver", "Brooks", 17.0f));
-        employeeList.add(new HourlyEmployee("Isabella", "Lee", 23.5f));
-        employeeList.add(new HourlyEmployee("Ethan", "Martinez", 16.5f));
-        employeeList.add(new HourlyEmployee("Ava", "Gonzalez", 35.0f));
-        employeeList.add(new HourlyEmployee("Mason", "Harris", 21.75f));
-        employeeList.add(new HourlyEmployee("Sophia", "Clark", 18.25f));
-        employeeList.add(new HourlyEmployee("Liam", "Walker", 40.0f));
-        employeeList.add(new HourlyEmployee("Charlotte", "Hall", 15.5f));
-        employeeList.add(new HourlyEmployee("Lucas", "Young", 27.0f));
-        employeeList.add(new HourlyEmployee("Amelia", "King", 19.5f));
-        employeeList.add(new HourlyEmployee("Logan", "Wright", 45.0f));
-        employeeList.add(new HourlyEmployee("Mia", "Lopez", 30.0f));
-        employeeList.add(new HourlyEmployee("Benjamin", "Hill", 22.5f));
-        employeeList.add(new HourlyEmployee("Scarlett", "Scott", 33.5f));
-        employeeList.add(new HourlyEmployee("Henry", "Green", 25.0f));
-        employeeList.add(new HourlyEmployee("Emily", "Adams", 37.25f));
-        employeeList.add(new HourlyEmployee("Michael", "Nelson", 28.75f));
-        employeeList.add(new HourlyEmployee("Ella", "Baker", 15.25f));
-        employeeList.add(new HourlyEmployee("Alexander", "Hall", 42.0f));
-    }
-    // main method
+    // The employee roster. It loads in the background so the menu is usable immediately
+    static Roster roster = new Roster(new SeedRosterSource());
+    /**
+     * Starts loading the roster in the background and shows the menu.
+     * By default the built-in sample roster is loaded. Pass `--roster {file}` to load a roster file
+     * (see `FileRosterSource` for the format) or `--generate {count}` to generate a synthetic roster.
+     *
+     * @param args Optional roster source arguments.
+     */
     public static void main (String[] args) {
+        if (args.length == 2 && args[0].equals("--roster")) {
+            roster = new Roster(new FileRosterSource(Path.of(args[1])));
+        } else if (args.length == 2 && args[0].equals("--generate")) {
+            roster = new Roster(new GeneratedRosterSource(Integer.parseInt(args[1]), 42));
+        }
+        roster.loadInBackground();
         menu();
     }
 }
@@ -0,0 +1,521 @@
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Flow;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * Micro-benchmarks for the roster, search and payroll utilities.
+ * Run with `java PayrollBenchmark [name ...] [--size N]`; with no names every benchmark runs.
+ * Each benchmark warms up before timing and reports the mean time per iteration.
+ * These are simple wall-clock measurements, so run them on an otherwise idle machine
+ * and compare results from the same JVM and flags.
+ */
+public class PayrollBenchmark {
+
+    // Results are folded into this field so the JIT cannot discard the benchmarked work
+    static volatile int blackhole;
+
+    public static void main(String[] args) {
+        int size = 1_000_000;
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--size")) {
+                size = Integer.parseInt(args[++i]);
+            } else {
+                names.add(args[i]);
+            }
+        }
+        if (names.isEmpty() || names.contains("startup")) {
+            benchmarkStartup(size);
+        }
+        System.out.printf("Generating %,d employees%n", size);
+        List<Employee> roster = GeneratedRosterSource.generate(size, 42);
+
+        if (names.isEmpty() || names.contains("query")) {
+            benchmarkQuery(roster);
+        }
+        if (names.isEmpty() || names.contains("sort")) {
+            benchmarkSort(roster);
+        }
+        if (names.isEmpty() || names.contains("pipeline")) {
+            benchmarkPipeline(roster);
+        }
+        if (names.isEmpty() || names.contains("kernel")) {
+            benchmarkKernel(roster);
+        }
+        if (names.isEmpty() || names.contains("paygroups")) {
+            benchmarkPayGroups(roster);
+        }
+        if (names.isEmpty() || names.contains("bulk")) {
+            benchmarkBulkUpdate(roster);
+        }
+        if (names.isEmpty() || names.contains("simulate")) {
+            benchmarkSimulation(roster);
+        }
+        if (names.isEmpty() || names.contains("churn")) {
+            benchmarkChurn(size);
+        }
+        if (names.isEmpty() || names.contains("org")) {
+            benchmarkOrgChart(roster);
+        }
+        if (names.isEmpty() || names.contains("timesheet")) {
+            benchmarkTimesheet(roster);
+        }
+    }
+
+    /**
+     * Measures time-to-first-query for a roster of `size` employees: building the whole list before the first
+     * lookup, as the old static initializer did, against a `Roster` loading in the background, which answers a
+     * lookup for one of the first employees as soon as that batch is published.
+     * Each measurement is a single cold run, repeated three times.
+     */
+    static void benchmarkStartup(int size) {
+        System.out.printf("time to first query, %,d employees:%n", size);
+        for (int run = 1; run <= 3; run++) {
+            long start = System.nanoTime();
+            List<Employee> eager = GeneratedRosterSource.generate(size, run);
+            Employee first = EmployeeSearch.binarySearchByID(eager, eager.get(10).getEmployeeNumber());
+            long eagerNanos = System.nanoTime() - start;
+
+            // A probe employee reveals the next ID, which is where the roster's IDs will start
+            int firstID = new SalariedEmployee("Probe", "Employee", 0).getEmployeeNumber() + 1;
+            start = System.nanoTime();
+            Roster roster = new Roster(new GeneratedRosterSource(size, run));
+            roster.loadInBackground();
+            Employee lazy = roster.findByID(firstID + 10);
+            long lazyNanos = System.nanoTime() - start;
+            int loadedAtFirstQuery = roster.loadedCount();
+            roster.employees();
+            long fullNanos = System.nanoTime() - start;
+
+            blackhole += first.getEmployeeNumber() + lazy.getEmployeeNumber();
+            System.out.printf("  run %d: eager %8.3f ms, background roster %8.3f ms (%,d loaded), full load %8.3f ms%n",
+                    run, eagerNanos / 1e6, lazyNanos / 1e6, loadedAtFirstQuery, fullNanos / 1e6);
+        }
+    }
+
+    /**
+     * Compares `EmployeeQuery` against a naive stream filter for a multi-condition query, a LIMIT query and an ID range.
+     */
+    static void benchmarkQuery(List<Employee> roster) {
+        String text = "payType = hourly and rate > 30 and lastName ^= H";
+        EmployeeQuery query = EmployeeQuery.parse(text);
+        System.out.println("query: " + text);
+        System.out.println("  plan: " + query.explain(roster, true));
+        time("  naive stream", 10, () -> roster.stream()
+                .filter(e -> e.getPayType().equals("hourly")
+                        && ((HourlyEmployee) e).getRate() > 30
+                        && e.getLastName().toLowerCase().startsWith("h"))
+                .collect(Collectors.toList()));
+        time("  EmployeeQuery", 10, () -> query.run(roster, true));
+
+        EmployeeQuery limited = EmployeeQuery.parse("topTier and lastName = Scott limit 20");
+        System.out.println("query: " + limited);
+        System.out.println("  plan: " + limited.explain(roster, true));
+        time("  naive stream", 10, () -> roster.stream()
+                .filter(e -> e instanceof CommissionEmployee c
+                        && c.getUnitsSold() >= c.getCommissionSchedule()[0][c.getCommissionSchedule()[0].length - 1]
+                        && e.getLastName().equals("Scott"))
+                .limit(20)
+                .collect(Collectors.toList()));
+        time("  EmployeeQuery", 10, () -> limited.run(roster, true));
+
+        // IDs keep counting across rosters, so take the bound from an employee rather than from the roster size
+        int low = roster.get(roster.size() / 2).getEmployeeNumber();
+        EmployeeQuery range = new EmployeeQuery().idBetween(low, low + 1000).payType("salary");
+        System.out.println("query: " + range);
+        System.out.println("  plan: " + range.explain(roster, true));
+        time("  naive stream", 10, () -> roster.stream()
+                .filter(e -> e.getEmployeeNumber() >= low && e.getEmployeeNumber() <= low + 1000
+                        && e.getPayType().equals("salary"))
+                .collect(Collectors.toList()));
+        time("  EmployeeQuery", 10, () -> range.run(roster, true));
+    }
+
+    /**
+     * Compares the radix and parallel merge sorts in `EmployeeSorter` with quicksort and `List.sort` on a shuffled roster.
+     * Quicksort is only timed by ID, since its partitioning degrades badly on the many repeated names.
+     */
+    static void benchmarkSort(List<Employee> roster) {
+        List<Employee> shuffled = new ArrayList<>(roster);
+        Collections.shuffle(shuffled, new Random(7));
+        System.out.println("sort by ID:");
+        time("  quicksort", 5, () -> {
+            List<Employee> copy = new ArrayList<>(shuffled);
+            EmployeeSorter.quicksort(copy, 0, copy.size() - 1, true);
+            return copy;
+        });
+        time("  List.sort", 5, () -> {
+            List<Employee> copy = new ArrayList<>(shuffled);
+            copy.sort(EmployeeSorter.BY_ID);
+            return copy;
+        });
+        time("  radix sort", 5, () -> {
+            List<Employee> copy = new ArrayList<>(shuffled);
+            EmployeeSorter.radixSortByID(copy);
+            return copy;
+        });
+        System.out.println("sort by name:");
+        time("  List.sort", 5, () -> {
+            List<Employee> copy = new ArrayList<>(shuffled);
+            copy.sort(Comparator.comparing(Employee::getLastName).thenComparing(Employee::getFirstName));
+            return copy;
+        });
+        time("  parallel merge sort", 5, () -> {
+            List<Employee> copy = new ArrayList<>(shuffled);
+            EmployeeSorter.parallelMergeSort(copy, EmployeeSorter.BY_NAME);
+            return copy;
+        });
+        time("  radix sort", 5, () -> {
+            List<Employee> copy = new ArrayList<>(shuffled);
+            EmployeeSorter.radixSortByName(copy);
+            return copy;
+        });
+    }
+
+    /**
+     * Compares the batched `PayPipeline`, run sequentially and in parallel, with computing the same
+     * deductions and bracketed tax one employee at a time.
+     */
+    static void benchmarkPipeline(List<Employee> roster) {
+        float[] thresholds = {0, 450, 1800, 3800, 8000};
+        float[] rates = {.10f, .12f, .22f, .24f, .32f};
+        PayPipeline pipeline = new PayPipeline(
+                new PreTaxDeduction(.05f, 120),
+                new BracketWithholding(thresholds, rates),
+                new PostTaxDeduction(0, 15));
+        System.out.println("gross to net:");
+        time("  per employee", 10, () -> {
+            double total = 0;
+            for (Employee employee : roster) {
+                float gross = employee.getPaycheck();
+                float preTax = Math.min(gross * .05f + 120, Math.max(gross, 0));
+                float taxable = gross - preTax;
+                float tax = 0;
+                for (int b = 0; b < thresholds.length && taxable > thresholds[b]; b++) {
+                    float top = b + 1 < thresholds.length ? Math.min(taxable, thresholds[b + 1]) : taxable;
+                    tax += (top - thresholds[b]) * rates[b];
+                }
+                total += gross - preTax - tax - Math.min(15, Math.max(gross - preTax - tax, 0));
+            }
+            return total;
+        });
+        time("  pipeline, sequential", 10, () -> pipeline.run(roster, false).totalNet());
+        time("  pipeline, parallel", 10, () -> pipeline.run(roster, true).totalNet());
+    }
+
+    /**
+     * Compares computing every paycheck through `getPaycheck()` with the column-based `PayKernel`, running
+     * the scalar loops and, when the JVM was started with `--add-modules jdk.incubator.vector`, the Vector API loops.
+     * Building the kernel's columns is timed separately, since it is paid once per snapshot of the roster.
+     * `PayKernelJmhBenchmark` measures the same comparison under JMH.
+     */
+    static void benchmarkKernel(List<Employee> roster) {
+        System.out.println("paychecks, default loops " + PayKernel.DEFAULT_LOOPS.getClass().getName() + ":");
+        time("  getPaycheck() per object", 10, () -> {
+            float[] paychecks = new float[roster.size()];
+            for (int i = 0; i < paychecks.length; i++) {
+                paychecks[i] = roster.get(i).getPaycheck();
+            }
+            return paychecks;
+        });
+        time("  PayKernel.of (columns)", 10, () -> PayKernel.of(roster));
+        PayKernel scalar = PayKernel.of(roster, new ScalarPayLoops());
+        float[] paychecks = new float[scalar.size()];
+        time("  PayKernel.compute, scalar", 10, () -> {
+            scalar.compute(paychecks);
+            return paychecks;
+        });
+        if (!(PayKernel.DEFAULT_LOOPS instanceof ScalarPayLoops)) {
+            PayKernel vector = PayKernel.of(roster);
+            time("  PayKernel.compute, vector", 10, () -> {
+                vector.compute(paychecks);
+                return paychecks;
+            });
+        }
+    }
+
+    /**
+     * Times a month-end run for January 2025 with the roster split into weekly, biweekly, semi-monthly
+     * and monthly groups, running every pay run one after another and then through a `PayGroupScheduler`.
+     */
+    static void benchmarkPayGroups(List<Employee> roster) {
+        int quarter = roster.size() / 4;
+        LocalDate anchor = LocalDate.of(2025, 1, 3);
+        List<PayGroup> groups = List.of(
+                new PayGroup("weekly", PayFrequency.WEEKLY, anchor, roster.subList(0, quarter), 2),
+                new PayGroup("biweekly", PayFrequency.BIWEEKLY, anchor, roster.subList(quarter, 2 * quarter), 2),
+                new PayGroup("semi-monthly", PayFrequency.SEMI_MONTHLY, anchor, roster.subList(2 * quarter, 3 * quarter), 2),
+                new PayGroup("monthly", PayFrequency.MONTHLY, anchor, roster.subList(3 * quarter, roster.size()), 1));
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        System.out.printf("month-end run, %d cores:%n", Runtime.getRuntime().availableProcessors());
+        time("  one run at a time", 5, () -> {
+            List<PayRun> runs = new ArrayList<>();
+            for (PayGroup group : groups) {
+                for (LocalDate payDate : group.payDates(from, to)) {
+                    runs.add(group.run(payDate));
+                }
+            }
+            return runs;
+        });
+        try (PayGroupScheduler scheduler = new PayGroupScheduler(groups, Runtime.getRuntime().availableProcessors())) {
+            time("  PayGroupScheduler", 5, () -> scheduler.runAll(from, to));
+        }
+    }
+
+    /**
+     * Compares a raise applied one `setSalary` call at a time with `EmployeeBulkUpdate`, with a change feed
+     * installed so both pay for keeping a derived subscriber up to date. The raise is 0%, so repeated
+     * iterations leave the roster unchanged.
+     */
+    static void benchmarkBulkUpdate(List<Employee> roster) {
+        EmployeeChangeFeed feed = new EmployeeChangeFeed();
+        feed.subscribe(new Flow.Subscriber<>() {
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            public void onNext(List<EmployeeChange> batch) {
+                blackhole += batch.size();
+            }
+
+            public void onError(Throwable error) {
+            }
+
+            public void onComplete() {
+            }
+        });
+        Employee.setChangeFeed(feed);
+        System.out.println("raise for salaried employees:");
+        time("  setSalary per employee", 5, () -> {
+            for (Employee employee : roster) {
+                if (employee instanceof SalariedEmployee salaried && employee.getPayType().equals("salary")) {
+                    salaried.setSalary(salaried.getSalary() * 1f);
+                }
+            }
+            feed.flush();
+            return feed;
+        });
+        time("  EmployeeBulkUpdate", 5, () -> EmployeeBulkUpdate.apply(roster,
+                EmployeeQuery.parse("payType = salary").asPredicate(), EmployeeBulkUpdate.salaryTimes(1f)));
+        Employee.setChangeFeed(null);
+        feed.close();
+    }
+
+    /**
+     * Times a `CommissionSimulator` run of 1,000 scenarios over the commission employees among the first
+     * 30,000 employees, and reports paycheck evaluations per second.
+     */
+    static void benchmarkSimulation(List<Employee> roster) {
+        CommissionSimulator simulator = new CommissionSimulator(roster.subList(0, Math.min(roster.size(), 30_000)), .25f);
+        float[][] schedule = {{20, 120, 250, 400}, {.6f, 1.3f, 2.1f, 3f}};
+        int scenarios = 1000;
+        System.out.printf("commission simulation, %,d reps, %d cores:%n", simulator.size(),
+                Runtime.getRuntime().availableProcessors());
+        long nanos = time("  " + scenarios + " scenarios", 5,
+                () -> simulator.run(schedule, PayFrequency.BIWEEKLY, scenarios, 42));
+        System.out.printf("  %,.0f evaluations/s%n", (double) scenarios * simulator.size() / nanos * 1e9);
+    }
+
+    /**
+     * Measures terminate and rehire throughput under heavy churn: half of a roster of `size` employees is
+     * terminated in random order, with every fourth termination rehired, while background compaction runs.
+     * For comparison, removing employees from the middle of an `ArrayList` is timed on a sample of 2,000 removals.
+     */
+    static void benchmarkChurn(int size) {
+        Roster roster = new Roster(new GeneratedRosterSource(size, 7));
+        List<Employee> employees = roster.employees();
+        List<Integer> ids = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            ids.add(employee.getEmployeeNumber());
+        }
+        Collections.shuffle(ids, new Random(7));
+        List<Employee> copy = new ArrayList<>(employees);
+        System.out.printf("churn, %,d employees:%n", size);
+
+        long start = System.nanoTime();
+        int operations = 0;
+        for (int i = 0; i < ids.size() / 2; i++) {
+            Employee terminated = roster.terminate(ids.get(i));
+            operations++;
+            if (i % 4 == 0) {
+                roster.rehire(terminated);
+                operations++;
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.printf("  tombstones + compaction     %,.0f operations/s%n", operations / (nanos / 1e9));
+
+        Random random = new Random(7);
+        int removals = Math.min(2000, copy.size() / 2);
+        start = System.nanoTime();
+        for (int i = 0; i < removals; i++) {
+            blackhole += copy.remove(random.nextInt(copy.size())).getEmployeeNumber();
+        }
+        nanos = System.nanoTime() - start;
+        System.out.printf("  ArrayList.remove            %,.0f operations/s%n", removals / (nanos / 1e9));
+    }
+
+    /**
+     * Arranges the roster into an org tree where everyone has 8 direct reports, then compares payroll totals
+     * for the 8 VPs under the CEO computed by walking the reporting lines with `OrgChart.subtreeTotal`.
+     * Also reports the throughput of raises and of moves to another manager kept up to date with `refresh`.
+     * The reporting lines are cleared again at the end.
+     */
+    static void benchmarkOrgChart(List<Employee> roster) {
+        for (int i = 1; i < roster.size(); i++) {
+            roster.get(i).setManagerId(roster.get((i - 1) / 8).getEmployeeNumber());
+        }
+        System.out.printf("org chart, %,d employees:%n", roster.size());
+        time("  OrgChart.of", 3, () -> OrgChart.of(roster));
+        OrgChart chart = OrgChart.of(roster);
+        List<Employee> vps = roster.subList(1, Math.min(roster.size(), 9));
+
+        Map<Integer, List<Employee>> reports = roster.stream().collect(Collectors.groupingBy(Employee::getManagerId));
+        time("  walk reporting lines (8 VPs)", 5, () -> {
+            double total = 0;
+            for (Employee vp : vps) {
+                List<Employee> pending = new ArrayList<>(List.of(vp));
+                while (!pending.isEmpty()) {
+                    Employee employee = pending.remove(pending.size() - 1);
+                    total += employee.getPaycheck();
+                    pending.addAll(reports.getOrDefault(employee.getEmployeeNumber(), List.of()));
+                }
+            }
+            return total;
+        });
+        time("  OrgChart.subtreeTotal (8 VPs)", 5, () -> {
+            double total = 0;
+            for (Employee vp : vps) {
+                total += chart.subtreeTotal(vp.getEmployeeNumber());
+            }
+            return total;
+        });
+
+        Random random = new Random(5);
+        int operations = 100_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            Employee employee = roster.get(random.nextInt(roster.size()));
+            if (employee instanceof SalariedEmployee salaried) {
+                salaried.setSalary(salaried.getSalary());
+            }
+            chart.refresh(employee);
+        }
+        System.out.printf("  raise + refresh             %,.0f operations/s%n", operations / ((System.nanoTime() - start) / 1e9));
+        start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            // Employees in the second half of the list have no reports, so a move never forms a cycle
+            Employee employee = roster.get(roster.size() / 2 + random.nextInt(roster.size() / 2));
+            employee.setManagerId(roster.get(random.nextInt(roster.size() / 2)).getEmployeeNumber());
+            chart.refresh(employee);
+        }
+        System.out.printf("  move + refresh              %,.0f operations/s%n", operations / ((System.nanoTime() - start) / 1e9));
+        for (Employee employee : roster) {
+            employee.setManagerId(Employee.NO_MANAGER);
+        }
+    }
+
+    /**
+     * Ingests two weeks of punches for every hourly employee, one clock-in and one clock-out per weekday with
+     * a few minutes of jitter, in time order as a clock feed would deliver them. Reports ingest throughput,
+     * storage and heap per punch, and the time to aggregate the period into hours in parallel.
+     * The same feed is then ingested again as one parallel stream that creates each punch as it goes,
+     * reporting its throughput and heap per punch.
+     */
+    static void benchmarkTimesheet(List<Employee> roster) {
+        int[] ids = roster.stream().filter(employee -> employee instanceof HourlyEmployee)
+                .mapToInt(Employee::getEmployeeNumber).toArray();
+        LocalDate from = LocalDate.of(2025, 3, 3);
+        LocalDate to = from.plusDays(13);
+        ZoneId zone = ZoneId.of("America/Chicago");
+        Random random = new Random(9);
+        System.out.printf("timesheet, %,d hourly employees, 2 weeks:%n", ids.length);
+
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        Timesheet timesheet = new Timesheet();
+        long nanos = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (day.getDayOfWeek().getValue() > 5) {
+                continue;
+            }
+            long clockIn = day.atTime(8, 0).atZone(zone).toEpochSecond();
+            long start = System.nanoTime();
+            for (int id : ids) {
+                timesheet.record(id, clockIn + random.nextInt(900), true);
+            }
+            for (int id : ids) {
+                timesheet.record(id, clockIn + 9 * 3600 + random.nextInt(900), false);
+            }
+            nanos += System.nanoTime() - start;
+        }
+        long punches = timesheet.punchCount();
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("  ingest                      %,.0f punches/s%n", punches / (nanos / 1e9));
+        System.out.printf("  storage                     %.2f bytes/punch (%.2f bytes/punch of heap)%n",
+                (double) timesheet.storageBytes() / punches, (double) (heapAfter - heapBefore) / punches);
+        time("  applyTo (parallel)", 5,
+                () -> timesheet.applyTo(roster, from, to, zone, OvertimeRule.DAILY_8_WEEKLY_40));
+
+        // Punch i of the feed: 10 weekdays of all clock-ins, then all clock-outs, with jitter from the index
+        List<LocalDate> weekdays = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (day.getDayOfWeek().getValue() <= 5) {
+                weekdays.add(day);
+            }
+        }
+        long[] clockIns = weekdays.stream().mapToLong(day -> day.atTime(8, 0).atZone(zone).toEpochSecond()).toArray();
+        int perDay = 2 * ids.length;
+        System.gc();
+        heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        Timesheet parallel = new Timesheet();
+        long start = System.nanoTime();
+        long ingested = parallel.ingest(IntStream.range(0, clockIns.length * perDay).parallel().mapToObj(i -> {
+            int day = i / perDay;
+            boolean clockIn = i % perDay < ids.length;
+            long jitter = (i * 2654435761L >>> 8) % 900;
+            return new Punch(ids[i % ids.length], clockIns[day] + (clockIn ? 0 : 9 * 3600) + jitter, clockIn);
+        }));
+        nanos = System.nanoTime() - start;
+        System.gc();
+        heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("  ingest, one parallel stream %,.0f punches/s, %.2f bytes/punch of heap%n",
+                ingested / (nanos / 1e9), (double) (heapAfter - heapBefore) / ingested);
+    }
+
+    /**
+     * Runs `task` a few times to warm up, then reports the mean wall-clock time over `iterations` runs.
+     *
+     * @param label The label printed with the result.
+     * @param iterations The number of timed runs.
+     * @param task The work to time.
+     * @return The mean time per run, in nanoseconds.
+     */
+    static long time(String label, int iterations, Supplier<?> task) {
+        int sink = 0;
+        for (int i = 0; i < Math.max(3, iterations / 2); i++) {
+            sink += System.identityHashCode(task.get());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += System.identityHashCode(task.get());
+        }
+        long mean = (System.nanoTime() - start) / iterations;
+        blackhole = sink;
+        System.out.printf("%-28s %10.3f ms%n", label, mean / 1e6);
+        return mean;
+    }
+}
@@ -0,0 +1,428 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+
+/**
+ * Holds the employee list and loads it from a `RosterSource` on a background thread, so callers can start
+ * working before the whole roster has been created.
+ * Employees are published to readers in small batches as the source produces them:
+ * - `findByID` only waits until the requested ID has been loaded.
+ * - `employees` waits for the full roster.
+ * Employees are announced on the change feed with a create once they join the roster.
+ * The loader uses a plain daemon thread rather than an executor to keep the classes loaded at startup to a minimum.
+ * Bulk changes to the employees' fields hold the roster's write lock, so readers that go through `read`
+ * see either none or all of a bulk change.
+ * Terminated employees are not removed from the list right away, which would cost O(n) per removal.
+ * They are marked with a tombstone that searches and payroll runs skip, and a background compactor later
+ * copies the live employees into a new list in the same order and swaps it in. Readers are never blocked
+ * by compaction; a reader still holding the old list keeps a consistent, if stale, view of it.
+ * Changing the list, such as adding with `add` or reordering with `sort`, takes the write lock so that it cannot
+ * race a compaction or a reader in `read`.
+ */
+public class Roster {
+
+    // Number of employees the loader creates before publishing them to waiting readers
+    private static final int PUBLISH_BATCH = 1024;
+    // Compaction starts once at least this many tombstones make up at least a quarter of the list
+    static final int COMPACTION_MIN_TOMBSTONES = 1024;
+
+    private final RosterSource source;
+    private List<Employee> employees = new ArrayList<>();
+    private final List<Employee> pendingAdds = new ArrayList<>();
+    private Thread loader;
+    private boolean complete = false;
+    private Throwable failure;
+    private final ReentrantReadWriteLock updateLock = new ReentrantReadWriteLock();
+    // Employees in the list by ID, built on first use once loading has finished
+    private Map<Integer, Employee> index;
+    private int tombstones;
+    private Thread compactor;
+    // Held for a whole compaction, so a call to `compact` and the background compactor cannot swap lists at once
+    private final Object compactLock = new Object();
+
+    /**
+     * Constructs a Roster that will load its employees from `source`. Loading starts on the first call to
+     * `loadInBackground`, `employees` or `findByID`.
+     *
+     * @param source The source of the roster's employees.
+     */
+    public Roster(RosterSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Starts loading the roster on a background thread. Does nothing if loading has already started.
+     */
+    public synchronized void loadInBackground() {
+        if (loader != null) {
+            return;
+        }
+        loader = new Thread(this::load, "roster-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Runs the source and publishes its employees in batches, then appends any employees added while loading.
+     */
+    private void load() {
+        List<Employee> batch = new ArrayList<>(PUBLISH_BATCH);
+        Throwable error = null;
+        try {
+            source.load(employee -> {
+                batch.add(employee);
+                if (batch.size() == PUBLISH_BATCH) {
+                    publish(batch);
+                    // Announced outside the monitor, since a full feed blocks until subscribers catch up
+                    Employee.publishCreated(batch);
+                    batch.clear();
+                }
+            });
+        } catch (Throwable e) {
+            error = e;
+        }
+        Employee.publishCreated(batch);
+        synchronized (this) {
+            employees.addAll(batch);
+            employees.addAll(pendingAdds);
+            pendingAdds.clear();
+            failure = error;
+            complete = true;
+            notifyAll();
+        }
+    }
+
+    private synchronized void publish(List<Employee> batch) {
+        employees.addAll(batch);
+        notifyAll();
+    }
+
+    /**
+     * Returns the full employee list, waiting for the roster to finish loading if necessary.
+     * The returned list is the roster's own list and may include terminated employees.
+     * Compaction replaces it with a new list, so callers should not hold on to it for long.
+     * Add employees with `add` and reorder them with `sort` rather than changing the list directly.
+     *
+     * @return The list of all employees.
+     * @throws IllegalStateException If the roster source failed or the calling thread was interrupted while waiting.
+     */
+    public synchronized List<Employee> employees() {
+        loadInBackground();
+        while (!complete) {
+            awaitLoader();
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Roster failed to load: " + failure.getMessage(), failure);
+        }
+        return employees;
+    }
+
+    /**
+     * Finds an employee by ID, waiting only until the loader has reached that ID rather than for the whole roster.
+     * While loading, the loaded employees are in ascending ID order and are searched with a binary search.
+     * Once loading has finished the list may have been reordered by its users, so it is scanned instead.
+     *
+     * @param targetID The employee ID to search for.
+     * @return The employee with the specified ID, or null if no employee with the ID exists.
+     * @throws IllegalStateException If the calling thread was interrupted while waiting.
+     */
+    public synchronized Employee findByID(int targetID) {
+        loadInBackground();
+        while (!complete && (employees.isEmpty() || employees.get(employees.size() - 1).getEmployeeNumber() < targetID)) {
+            awaitLoader();
+        }
+        if (!complete) {
+            Employee found = EmployeeSearch.binarySearchByID(employees, targetID);
+            if (found != null) {
+                return found;
+            }
+            for (Employee employee : pendingAdds) {
+                if (employee.getEmployeeNumber() == targetID && !employee.isTerminated()) {
+                    return employee;
+                }
+            }
+            return null;
+        }
+        Employee employee = index().get(targetID);
+        return employee == null || employee.isTerminated() ? null : employee;
+    }
+
+    /**
+     * Adds an employee to the roster. Employees added while the roster is loading are appended once loading finishes.
+     * Once loading has finished, the employee is appended while holding the write lock, so readers in `read`
+     * never see the list grow under them.
+     *
+     * @param employee The employee to add.
+     */
+    public void add(Employee employee) {
+        boolean loaded;
+        synchronized (this) {
+            loaded = complete;
+            if (!loaded) {
+                pendingAdds.add(employee);
+            }
+        }
+        if (loaded) {
+            Lock lock = writeLock();
+            lock.lock();
+            try {
+                synchronized (this) {
+                    employees.add(employee);
+                    if (index != null) {
+                        index.put(employee.getEmployeeNumber(), employee);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        employee.publishChange(EmployeeChange.Type.CREATE, null);
+    }
+
+    /**
+     * Terminates the employee with ID `targetID`, leaving a tombstone in the list.
+     * Starts a background compaction once tombstones make up a quarter of the roster.
+     *
+     * @param targetID The ID of the employee to terminate.
+     * @return The terminated employee, which can later be passed to `rehire`, or null if no active employee has the ID.
+     */
+    public Employee terminate(int targetID) {
+        employees();
+        Employee employee;
+        synchronized (this) {
+            employee = index().get(targetID);
+            if (employee == null || employee.isTerminated()) {
+                return null;
+            }
+            employee.setTerminated(true);
+            tombstones++;
+            if (tombstones >= COMPACTION_MIN_TOMBSTONES && tombstones * 4 >= employees.size()) {
+                compactInBackground();
+            }
+        }
+        // Announced outside the monitor, since a full feed blocks until subscribers catch up
+        employee.publishChange(EmployeeChange.Type.DELETE, null);
+        return employee;
+    }
+
+    /**
+     * Rehires a terminated employee. If compaction has already removed them from the list, they are inserted
+     * at the position of their ID, so a list sorted by ID stays sorted.
+     *
+     * @param employee The employee to rehire, as returned by `terminate`.
+     * @return False if the employee was not terminated.
+     */
+    public boolean rehire(Employee employee) {
+        employees();
+        Lock lock = writeLock();
+        lock.lock();
+        try {
+            synchronized (this) {
+                if (!employee.isTerminated()) {
+                    return false;
+                }
+                employee.setTerminated(false);
+                if (index().get(employee.getEmployeeNumber()) == employee) {
+                    tombstones--;
+                } else {
+                    employees.add(insertionPoint(employee.getEmployeeNumber()), employee);
+                    index.put(employee.getEmployeeNumber(), employee);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        employee.publishChange(EmployeeChange.Type.CREATE, null);
+        return true;
+    }
+
+    /**
+     * Sorts the employee list by ID or by name while holding the write lock.
+     *
+     * @param sortByID True to sort by employee ID, false to sort by last name then first name.
+     */
+    public void sort(boolean sortByID) {
+        employees();
+        Lock lock = writeLock();
+        lock.lock();
+        try {
+            synchronized (this) {
+                EmployeeSorter.sort(employees, sortByID);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of terminated employees still in the list.
+     *
+     * @return The number of tombstones.
+     */
+    public synchronized int tombstoneCount() {
+        return tombstones;
+    }
+
+    /**
+     * Starts compacting the roster on a background thread. Does nothing if a compaction is already running.
+     * The compactor keeps going while tombstones still make up a quarter of the roster.
+     */
+    public synchronized void compactInBackground() {
+        if (compactor != null) {
+            return;
+        }
+        compactor = new Thread(() -> {
+            boolean again;
+            do {
+                compact();
+                synchronized (this) {
+                    again = tombstones >= COMPACTION_MIN_TOMBSTONES && tombstones * 4 >= employees.size();
+                    if (!again) {
+                        compactor = null;
+                    }
+                }
+            } while (again);
+        }, "roster-compactor");
+        compactor.setDaemon(true);
+        compactor.start();
+    }
+
+    /**
+     * Removes terminated employees from the list, keeping the others in their current order.
+     * The live employees are copied into a new list while holding only the read lock, so readers carry on
+     * and only adds, sorts and rehires wait.
+     * Compactions run one at a time.
+     */
+    public void compact() {
+        employees();
+        synchronized (compactLock) {
+            Lock lock = readLock();
+            lock.lock();
+            try {
+                Employee[] snapshot;
+                synchronized (this) {
+                    snapshot = employees.toArray(new Employee[0]);
+                }
+                List<Employee> live = new ArrayList<>(snapshot.length);
+                List<Employee> removed = new ArrayList<>();
+                for (Employee employee : snapshot) {
+                    (employee.isTerminated() ? removed : live).add(employee);
+                }
+                synchronized (this) {
+                    // Everything that changes the list takes the write lock, so it still matches the snapshot
+                    employees = live;
+                    for (Employee employee : removed) {
+                        if (index != null) {
+                            index.remove(employee.getEmployeeNumber());
+                        }
+                    }
+                    tombstones -= removed.size();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the ID index, building it if necessary. Must be called while holding the monitor after loading.
+     */
+    private Map<Integer, Employee> index() {
+        if (index == null) {
+            index = new HashMap<>(employees.size() * 2);
+            for (Employee employee : employees) {
+                index.put(employee.getEmployeeNumber(), employee);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the first position whose employee has an ID above `targetID`, assuming the list is sorted by ID.
+     * In a list sorted some other way the position is arbitrary but still valid.
+     */
+    private int insertionPoint(int targetID) {
+        int low = 0;
+        int high = employees.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (employees.get(mid).getEmployeeNumber() < targetID) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns whether the roster has finished loading.
+     *
+     * @return True once every employee from the source has been loaded.
+     */
+    public synchronized boolean isLoaded() {
+        return complete;
+    }
+
+    /**
+     * Returns the number of employees loaded so far.
+     *
+     * @return The number of loaded employees.
+     */
+    public synchronized int loadedCount() {
+        return employees.size() + pendingAdds.size();
+    }
+
+    /**
+     * Runs `reader` over the full employee list while holding the read lock, so it sees either none or all of
+     * any bulk update and the list is not added to or reordered under it. For example `roster.read(PayKernel::of)`.
+     *
+     * @param reader The work to do with the list. It must not keep the list after returning.
+     * @param <T> The type of the result.
+     * @return The reader's result.
+     * @throws IllegalStateException If the roster source failed or the calling thread was interrupted while waiting.
+     */
+    public <T> T read(Function<List<Employee>, T> reader) {
+        employees();
+        Lock lock = readLock();
+        lock.lock();
+        try {
+            return reader.apply(employees());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the lock readers hold to see a consistent view of the employees' fields while bulk updates run.
+     *
+     * @return The read lock.
+     */
+    public Lock readLock() {
+        return updateLock.readLock();
+    }
+
+    /**
+     * Returns the lock held while changing many employees at once, such as by `EmployeeBulkUpdate`,
+     * or while reordering the list.
+     *
+     * @return The write lock.
+     */
+    public Lock writeLock() {
+        return updateLock.writeLock();
+    }
+
+    private void awaitLoader() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the roster to load", e);
+        }
+    }
+}
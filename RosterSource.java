@@ -0,0 +1,215 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+
+/**
+ * A source of employee records for a `Roster`.
+ * Sources hand employees to the sink one at a time as they are created, so a roster can serve
+ * lookups for the records already loaded while the rest are still on their way.
+ */
+public interface RosterSource {
+
+    /**
+     * Creates every employee in this source and passes each one to `sink`, in the order they are created.
+     *
+     * @param sink Receives each employee as soon as it is created.
+     * @throws IOException If the source cannot be read.
+     */
+    void load(Consumer<Employee> sink) throws IOException;
+}
+
+/**
+ * The SeedRosterSource class provides the built-in sample roster used by the Payroll menu.
+ */
+class SeedRosterSource implements RosterSource {
+
+    @Override
+    public void load(Consumer<Employee> sink) {
+        sink.accept(new CommissionEmployee("Eric", "Wilson", 65000, new float[][]{{10, 100, 200, 400}, {.5f, 1.2f, 2f, 3f}}));
+        sink.accept(new CommissionEmployee("Sarah", "Johnson", 67000, new float[][]{{20, 150, 300, 500}, {0.6f, 1.5f, 2.2f, 3.1f}}));
+        sink.accept(new CommissionEmployee("Liam", "Baker", 62000, new float[][]{{30, 120, 250, 450}, {0.8f, 1.3f, 2.0f, 3.2f}}));
+        sink.accept(new CommissionEmployee("Emma", "Hughes", 69000, new float[][]{{15, 130, 280, 420}, {0.7f, 1.4f, 2.1f, 3.0f}}));
+        sink.accept(new CommissionEmployee("Noah", "Davis", 66000, new float[][]{{25, 160, 290, 460}, {0.9f, 1.6f, 2.3f, 3.4f}}));
+        sink.accept(new CommissionEmployee("Olivia", "Martin", 64000, new float[][]{{10, 140, 260, 410}, {0.5f, 1.2f, 2.1f, 2.8f}}));
+        sink.accept(new CommissionEmployee("James", "Walker", 70000, new float[][]{{20, 100, 300, 600}, {0.6f, 1.0f, 2.5f, 3.5f}}));
+        sink.accept(new CommissionEmployee("Sophia", "Hall", 71000, new float[][]{{15, 110, 210, 310}, {0.7f, 1.1f, 1.8f, 2.6f}}));
+        sink.accept(new CommissionEmployee("Mason", "Young", 68000, new float[][]{{20, 90, 230, 370}, {0.9f, 1.2f, 2.0f, 2.9f}}));
+        sink.accept(new CommissionEmployee("Isabella", "Scott", 65000, new float[][]{{10, 100, 200, 400}, {0.5f, 1.3f, 1.9f, 2.7f}}));
+        sink.accept(new CommissionEmployee("Benjamin", "Green", 66000, new float[][]{{20, 120, 270, 450}, {0.6f, 1.4f, 2.2f, 3.3f}}));
+        sink.accept(new CommissionEmployee("Amelia", "Adams", 72000, new float[][]{{15, 110, 250, 480}, {0.8f, 1.5f, 2.4f, 3.1f}}));
+        sink.accept(new SalariedEmployee("Nathan", "Diamond", 122000));
+        sink.accept(new SalariedEmployee("Lily", "Turner", 87000));
+        sink.accept(new SalariedEmployee("Jack", "Peterson", 94000));
+        sink.accept(new SalariedEmployee("Sophia", "Ross", 102000));
+        sink.accept(new SalariedEmployee("Ethan", "Morris", 110000));
+        sink.accept(new SalariedEmployee("Ava", "Reed", 96000));
+        sink.accept(new SalariedEmployee("William", "Nguyen", 115000));
+        sink.accept(new SalariedEmployee("Chloe", "Kim", 98000));
+        sink.accept(new SalariedEmployee("Lucas", "Adams", 99000));
+        sink.accept(new SalariedEmployee("Ella", "Parker", 105000));
+        sink.accept(new SalariedEmployee("Daniel", "Long", 93000));
+        sink.accept(new SalariedEmployee("Emily", "Hernandez", 92000));
+        sink.accept(new SalariedEmployee("Mia", "Ramirez", 101000));
+        sink.accept(new SalariedEmployee("Matthew", "Carter", 108000));
+        sink.accept(new SalariedEmployee("Zoe", "Murphy", 97000));
+        sink.accept(new SalariedEmployee("James", "Bailey", 112000));
+        sink.accept(new SalariedEmployee("Grace", "Wright", 107000));
+        sink.accept(new SalariedEmployee("Samuel", "Bell", 95000));
+        sink.accept(new SalariedEmployee("Victoria", "Ross", 103000));
+        sink.accept(new SalariedEmployee("Henry", "Sanders", 100000));
+        sink.accept(new HourlyEmployee("Jessica", "Mason", 17.5f));
+        sink.accept(new HourlyEmployee("Oliver", "Brooks", 17.0f));
+        sink.accept(new HourlyEmployee("Isabella", "Lee", 23.5f));
+        sink.accept(new HourlyEmployee("Ethan", "Martinez", 16.5f));
+        sink.accept(new HourlyEmployee("Ava", "Gonzalez", 35.0f));
+        sink.accept(new HourlyEmployee("Mason", "Harris", 21.75f));
+        sink.accept(new HourlyEmployee("Sophia", "Clark", 18.25f));
+        sink.accept(new HourlyEmployee("Liam", "Walker", 40.0f));
+        sink.accept(new HourlyEmployee("Charlotte", "Hall", 15.5f));
+        sink.accept(new HourlyEmployee("Lucas", "Young", 27.0f));
+        sink.accept(new HourlyEmployee("Amelia", "King", 19.5f));
+        sink.accept(new HourlyEmployee("Logan", "Wright", 45.0f));
+        sink.accept(new HourlyEmployee("Mia", "Lopez", 30.0f));
+        sink.accept(new HourlyEmployee("Benjamin", "Hill", 22.5f));
+        sink.accept(new HourlyEmployee("Scarlett", "Scott", 33.5f));
+        sink.accept(new HourlyEmployee("Henry", "Green", 25.0f));
+        sink.accept(new HourlyEmployee("Emily", "Adams", 37.25f));
+        sink.accept(new HourlyEmployee("Michael", "Nelson", 28.75f));
+        sink.accept(new HourlyEmployee("Ella", "Baker", 15.25f));
+        sink.accept(new HourlyEmployee("Alexander", "Hall", 42.0f));
+    }
+}
+
+/**
+ * The FileRosterSource class reads employees from a comma-separated file, one employee per line:
+ * "hourly,{first},{last},{rate}", "salaried,{first},{last},{salary}" or
+ * "commissioned,{first},{last},{salary},{units sold thresholds},{values per unit}", where the
+ * thresholds and values are space-separated lists. Blank lines and lines starting with '#' are skipped.
+ * The file is streamed, so employees reach the roster as they are read.
+ */
+class FileRosterSource implements RosterSource {
+
+    private final Path path;
+
+    /**
+     * Constructs a FileRosterSource for the file at `path`.
+     *
+     * @param path The file to read.
+     */
+    public FileRosterSource(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public void load(Consumer<Employee> sink) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    sink.accept(parse(line.split("\\s*,\\s*")));
+                } catch (RuntimeException e) {
+                    throw new IOException(path + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the employee described by the fields of one line.
+     */
+    private static Employee parse(String[] fields) {
+        switch (fields[0].toLowerCase()) {
+            case "hourly":
+                return new HourlyEmployee(fields[1], fields[2], Float.parseFloat(fields[3]));
+            case "salaried":
+                return new SalariedEmployee(fields[1], fields[2], Float.parseFloat(fields[3]));
+            case "commissioned":
+                String[] thresholds = fields[4].split("\\s+");
+                String[] values = fields[5].split("\\s+");
+                if (thresholds.length != values.length) {
+                    throw new IllegalArgumentException("commission schedule rows have different lengths");
+                }
+                float[][] schedule = new float[2][thresholds.length];
+                for (int i = 0; i < thresholds.length; i++) {
+                    schedule[0][i] = Float.parseFloat(thresholds[i]);
+                    schedule[1][i] = Float.parseFloat(values[i]);
+                }
+                return new CommissionEmployee(fields[1], fields[2], Float.parseFloat(fields[3]), schedule);
+            default:
+                throw new IllegalArgumentException("unknown pay type '" + fields[0] + "'");
+        }
+    }
+}
+
+/**
+ * The GeneratedRosterSource class creates a reproducible synthetic roster with a realistic mix of pay types,
+ * repeated names, and hours and units sold already filled in. Used for load testing and benchmarks.
+ */
+class GeneratedRosterSource implements RosterSource {
+
+    private static final String[] LAST_NAMES = {"Adams", "Hall", "Scott", "Green", "Baker", "Wilson", "Johnson",
+            "Hughes", "Davis", "Martin", "Walker", "Young", "Diamond", "Turner", "Peterson", "Ross", "Morris"};
+    private static final String[] FIRST_NAMES = {"Eric", "Sarah", "Liam", "Emma", "Noah", "Olivia", "James",
+            "Sophia", "Mason", "Isabella", "Benjamin", "Amelia", "Nathan", "Lily", "Jack", "Ethan", "Ava"};
+
+    private final int size;
+    private final long seed;
+
+    /**
+     * Constructs a GeneratedRosterSource.
+     *
+     * @param size The number of employees to create.
+     * @param seed The random seed, so repeated loads build the same roster.
+     */
+    public GeneratedRosterSource(int size, long seed) {
+        this.size = size;
+        this.seed = seed;
+    }
+
+    /**
+     * Builds a roster of `size` employees, for tests and benchmarks that need the employees without a `Roster`.
+     *
+     * @param size The number of employees to create.
+     * @param seed The random seed, so repeated calls build the same roster.
+     * @return The generated employees, in ascending ID order.
+     */
+    static List<Employee> generate(int size, long seed) {
+        List<Employee> roster = new ArrayList<>(size);
+        new GeneratedRosterSource(size, seed).load(roster::add);
+        return roster;
+    }
+
+    @Override
+    public void load(Consumer<Employee> sink) {
+        Random random = new Random(seed);
+        for (int i = 0; i < size; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            int kind = random.nextInt(3);
+            if (kind == 0) {
+                HourlyEmployee hourly = new HourlyEmployee(first, last, 15 + random.nextInt(3000) / 100f);
+                hourly.setHours(20 + random.nextInt(50));
+                sink.accept(hourly);
+            } else if (kind == 1) {
+                sink.accept(new SalariedEmployee(first, last, 60000 + random.nextInt(80) * 1000));
+            } else {
+                CommissionEmployee commission = new CommissionEmployee(first, last, 60000 + random.nextInt(15) * 1000,
+                        new float[][]{{10, 100, 200, 400}, {.5f, 1.2f, 2f, 3f}});
+                commission.setUnitsSold(random.nextInt(500));
+                sink.accept(commission);
+            }
+        }
+    }
+}
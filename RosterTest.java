@@ -0,0 +1,331 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class that contains unit tests for loading a Roster and for terminating and rehiring its employees.
+ * The loading tests check when the source runs and what readers see while it is running; the others check
+ * that tombstones are hidden from searches and payroll runs and that compaction keeps the list in ID order.
+ */
+class RosterTest {
+
+    private static Roster loadedRoster(int size) {
+        Roster roster = new Roster(new GeneratedRosterSource(size, 3));
+        roster.employees();
+        return roster;
+    }
+
+    /**
+     * Tests that the source is not run until the roster is first used, and that it is only run once.
+     */
+    @Test
+    void testLoadStartsOnFirstAccess() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        GeneratedRosterSource generated = new GeneratedRosterSource(300, 4);
+        Roster roster = new Roster(sink -> {
+            loads.incrementAndGet();
+            generated.load(sink);
+        });
+        Thread.sleep(50);
+        assertEquals(0, loads.get());
+
+        assertNull(roster.findByID(Integer.MIN_VALUE));
+        assertEquals(1, loads.get());
+        List<Employee> employees = roster.employees();
+        assertEquals(300, employees.size());
+        assertSame(employees.get(120), roster.findByID(employees.get(120).getEmployeeNumber()));
+        roster.loadInBackground();
+        assertSame(employees, roster.employees());
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * Tests that while the source is still running, `findByID` answers for employees already loaded,
+     * `employees` waits for the rest, and employees added meanwhile are appended after the loaded ones.
+     */
+    @Test
+    void testAccessWhileLoading() throws InterruptedException {
+        CountDownLatch firstBatchSent = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Employee> early = new ArrayList<>();
+        Roster roster = new Roster(sink -> {
+            new GeneratedRosterSource(1024, 5).load(employee -> {
+                early.add(employee);
+                sink.accept(employee);
+            });
+            firstBatchSent.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            new GeneratedRosterSource(500, 6).load(sink);
+        });
+        roster.loadInBackground();
+        assertTrue(firstBatchSent.await(5, TimeUnit.SECONDS));
+
+        Employee loaded = early.get(700);
+        assertSame(loaded, roster.findByID(loaded.getEmployeeNumber()));
+        SalariedEmployee hire = new SalariedEmployee("New", "Hire", 50000);
+        roster.add(hire);
+        List<List<Employee>> result = new ArrayList<>();
+        Thread reader = new Thread(() -> result.add(roster.employees()));
+        reader.start();
+        reader.join(200);
+        assertTrue(reader.isAlive());
+
+        release.countDown();
+        reader.join(5000);
+        assertFalse(reader.isAlive());
+        List<Employee> employees = result.get(0);
+        assertEquals(1525, employees.size());
+        assertEquals(early, employees.subList(0, 1024));
+        assertSame(hire, employees.get(1524));
+        assertSame(hire, roster.findByID(hire.getEmployeeNumber()));
+    }
+
+    /**
+     * Tests that a source failure is reported by every call to `employees`, with the source's exception as the cause.
+     */
+    @Test
+    void testLoadFailure() {
+        IOException error = new IOException("disk on fire");
+        List<Employee> loaded = new ArrayList<>();
+        Roster roster = new Roster(sink -> {
+            new GeneratedRosterSource(10, 7).load(employee -> {
+                loaded.add(employee);
+                sink.accept(employee);
+            });
+            throw error;
+        });
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, roster::employees);
+        assertSame(error, thrown.getCause());
+        assertTrue(thrown.getMessage().contains("disk on fire"));
+        assertSame(error, assertThrows(IllegalStateException.class, roster::employees).getCause());
+        // The employees created before the failure can still be looked up
+        assertSame(loaded.get(3), roster.findByID(loaded.get(3).getEmployeeNumber()));
+    }
+
+    /**
+     * Tests that terminated employees are skipped by searches, are paid nothing by the pay kernel,
+     * and cannot be terminated twice.
+     */
+    @Test
+    void testTerminatedEmployeesAreHidden() {
+        Roster roster = loadedRoster(200);
+        Employee employee = roster.employees().get(50);
+        int id = employee.getEmployeeNumber();
+
+        assertSame(employee, roster.terminate(id));
+        assertNull(roster.terminate(id));
+        assertTrue(employee.isTerminated());
+        assertNull(roster.findByID(id));
+        assertNull(EmployeeSearch.binarySearchByID(roster.employees(), id));
+        assertEquals(0f, PayKernel.of(roster.employees()).compute()[50]);
+
+        roster.sort(false);
+        String lastName = employee.getLastName().toLowerCase();
+        assertFalse(EmployeeSearch.sequentialSearchByLastName(roster.employees(), lastName).contains(employee));
+    }
+
+    /**
+     * Tests that pay runs, queries, bulk updates, timesheets and commission simulations all skip terminated employees.
+     */
+    @Test
+    void testTombstonesSkippedEverywhere() {
+        Roster roster = loadedRoster(300);
+        List<Employee> employees = roster.employees();
+        Employee hourly = employees.stream().filter(e -> e instanceof HourlyEmployee).findFirst().orElseThrow();
+        Employee commission = employees.stream().filter(e -> e instanceof CommissionEmployee).findFirst().orElseThrow();
+        Employee salaried = employees.stream()
+                .filter(e -> e instanceof SalariedEmployee && !(e instanceof CommissionEmployee)).findFirst().orElseThrow();
+        float rate = ((HourlyEmployee) hourly).getRate();
+        float hours = ((HourlyEmployee) hourly).getHours();
+        long commissionCount = employees.stream().filter(e -> e instanceof CommissionEmployee).count();
+        long hourlyCount = employees.stream().filter(e -> e instanceof HourlyEmployee).count();
+        for (Employee employee : List.of(hourly, commission, salaried)) {
+            roster.terminate(employee.getEmployeeNumber());
+        }
+
+        PayBatch pay = new PayPipeline(new PreTaxDeduction(0, 10)).run(employees, false);
+        assertEquals(0, pay.getGross(employees.indexOf(hourly)));
+        assertEquals(0, pay.getNet(employees.indexOf(salaried)));
+        assertFalse(EmployeeQuery.parse("id >= 0").run(employees, true).contains(commission));
+        assertFalse(EmployeeQuery.parse("id >= 0").asPredicate().test(salaried));
+        assertEquals(297, EmployeeQuery.parse("id >= 0").run(employees, true).size());
+
+        assertEquals(hourlyCount - 1, EmployeeBulkUpdate.apply(roster, e -> true, EmployeeBulkUpdate.ratePlus(1)));
+        assertEquals(rate, ((HourlyEmployee) hourly).getRate());
+        Timesheet timesheet = new Timesheet();
+        LocalDate monday = LocalDate.of(2025, 3, 3);
+        assertEquals(hourlyCount - 1, timesheet.applyTo(employees, monday, monday.plusDays(6), ZoneOffset.UTC, OvertimeRule.NONE));
+        assertEquals(hours, ((HourlyEmployee) hourly).getHours());
+        assertEquals(commissionCount - 1, new CommissionSimulator(employees, 0).size());
+    }
+
+    /**
+     * Tests that a terminate blocked on a full change feed does not hold the roster's monitor,
+     * so other callers can still use the roster meanwhile.
+     */
+    @Test
+    void testTerminatePublishesOutsideTheMonitor() throws InterruptedException {
+        Roster roster = loadedRoster(100);
+        List<Employee> employees = roster.employees();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        EmployeeChangeFeed feed = new EmployeeChangeFeed(executor, 1, 1);
+        List<Flow.Subscription> subscriptions = new ArrayList<>();
+        feed.subscribe(new Flow.Subscriber<>() {
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriptions.add(subscription);
+            }
+
+            public void onNext(List<EmployeeChange> batch) {
+            }
+
+            public void onError(Throwable error) {
+            }
+
+            public void onComplete() {
+            }
+        });
+        Employee.setChangeFeed(feed);
+        try {
+            // The subscriber requests nothing, so the first delete fills its buffer and the second one blocks
+            roster.terminate(employees.get(0).getEmployeeNumber());
+            Thread terminator = new Thread(() -> roster.terminate(employees.get(1).getEmployeeNumber()));
+            terminator.start();
+            terminator.join(300);
+            assertTrue(terminator.isAlive());
+
+            Thread reader = new Thread(() -> {
+                roster.tombstoneCount();
+                roster.findByID(employees.get(50).getEmployeeNumber());
+            });
+            reader.start();
+            reader.join(5000);
+            assertFalse(reader.isAlive());
+
+            subscriptions.get(0).request(Long.MAX_VALUE);
+            terminator.join(5000);
+            assertFalse(terminator.isAlive());
+            assertEquals(2, roster.tombstoneCount());
+        } finally {
+            Employee.setChangeFeed(null);
+            feed.close();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests that an add started while a reader in `read` is halfway through the list waits for the reader,
+     * rather than growing the list under it.
+     */
+    @Test
+    void testAddWaitsForReader() throws InterruptedException {
+        Roster roster = loadedRoster(1000);
+        HourlyEmployee hire = new HourlyEmployee("New", "Hire", 20);
+        Thread adder = new Thread(() -> roster.add(hire));
+        // Iterating on after the list has grown would throw ConcurrentModificationException
+        int seen = roster.read(list -> {
+            int count = 0;
+            for (Employee employee : list) {
+                if (count++ == 500) {
+                    adder.start();
+                    try {
+                        adder.join(300);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+            return count;
+        });
+        assertEquals(1000, seen);
+        adder.join(5000);
+        assertFalse(adder.isAlive());
+        assertEquals(1001, roster.employees().size());
+        assertSame(hire, roster.findByID(hire.getEmployeeNumber()));
+    }
+
+    /**
+     * Tests that compaction removes tombstones, keeps the list in ID order for `binarySearchByID`,
+     * and that a rehired employee is inserted back at its ID position.
+     */
+    @Test
+    void testCompactionKeepsIDOrder() {
+        Roster roster = loadedRoster(1000);
+        List<Employee> terminated = new ArrayList<>();
+        for (int i = 0; i < 1000; i += 3) {
+            terminated.add(roster.terminate(roster.employees().get(i).getEmployeeNumber()));
+        }
+        assertEquals(terminated.size(), roster.tombstoneCount());
+
+        roster.compact();
+        List<Employee> employees = roster.employees();
+        assertEquals(1000 - terminated.size(), employees.size());
+        assertEquals(0, roster.tombstoneCount());
+        for (int i = 1; i < employees.size(); i++) {
+            assertTrue(employees.get(i - 1).getEmployeeNumber() < employees.get(i).getEmployeeNumber());
+        }
+
+        Employee returning = terminated.get(terminated.size() / 2);
+        assertTrue(roster.rehire(returning));
+        assertFalse(roster.rehire(returning));
+        employees = roster.employees();
+        assertSame(returning, EmployeeSearch.binarySearchByID(employees, returning.getEmployeeNumber()));
+        assertSame(returning, roster.findByID(returning.getEmployeeNumber()));
+        for (int i = 1; i < employees.size(); i++) {
+            assertTrue(employees.get(i - 1).getEmployeeNumber() < employees.get(i).getEmployeeNumber());
+        }
+    }
+
+    private static boolean backgroundCompactionDone(Roster roster) {
+        int tombstones = roster.tombstoneCount();
+        int size = roster.employees().size();
+        return size < 8000 && (tombstones < Roster.COMPACTION_MIN_TOMBSTONES || tombstones * 4 < size);
+    }
+
+    /**
+     * Tests that rehiring an employee before compaction clears the tombstone in place,
+     * and that heavy churn triggers a background compaction.
+     */
+    @Test
+    void testRehireBeforeCompactionAndBackgroundCompaction() throws InterruptedException {
+        Roster roster = loadedRoster(8000);
+        Employee employee = roster.terminate(roster.employees().get(10).getEmployeeNumber());
+        assertTrue(roster.rehire(employee));
+        assertEquals(0, roster.tombstoneCount());
+        assertEquals(8000, roster.employees().size());
+
+        // Compaction may swap the list mid-loop, so pick the IDs up front
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 8000; i += 2) {
+            ids.add(roster.employees().get(i).getEmployeeNumber());
+        }
+        for (int id : ids) {
+            assertNotNull(roster.terminate(id));
+        }
+        // The compactor stops once tombstones no longer make up a quarter of the list, which can leave more than
+        // the minimum behind; a compaction of its own removes the rest
+        for (int wait = 0; wait < 500 && !backgroundCompactionDone(roster); wait++) {
+            Thread.sleep(10);
+        }
+        assertTrue(backgroundCompactionDone(roster));
+        roster.compact();
+        assertEquals(0, roster.tombstoneCount());
+        assertEquals(4000, roster.employees().size());
+    }
+}
@@ -0,0 +1,502 @@
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+
+/**
+ * Collects clock-in and clock-out punches from time clocks and turns them into the hours `HourlyEmployee` is paid for.
+ * Punches are stored per employee as delta-encoded timestamps in a growable `int[]`: each entry holds the seconds
+ * since the employee's previous punch, shifted left one bit, with the low bit set for a clock-in. That is 4 bytes
+ * per punch instead of an object per punch, and any one employee's punches can be recorded from any thread.
+ * Each employee's punches must arrive in time order; punches for different employees may interleave freely.
+ * Every 64th punch also records its full timestamp as a checkpoint, so computing hours for a period starts
+ * decoding near the period rather than at the employee's first punch. Once a period is closed, callers can
+ * drop the punches before it with `discardBefore`.
+ * Punches are paired into shifts when hours are computed:
+ * - a clock-in followed by a clock-out is a shift
+ * - a clock-in followed by another clock-in is a missed punch, and the first clock-in is dropped
+ * - a clock-out with no clock-in before it is dropped
+ * - a clock-in with nothing after it is a shift still in progress, and is not counted yet
+ */
+public class Timesheet {
+
+    private final Map<Integer, PunchLog> logs = new ConcurrentHashMap<>();
+
+    /**
+     * Records one punch.
+     *
+     * @param employeeID The ID of the employee who punched.
+     * @param epochSecond When the punch happened, in seconds since 1970-01-01T00:00Z.
+     * @param clockIn True for a clock-in, false for a clock-out.
+     * @throws IllegalArgumentException If the punch is earlier than the employee's previous punch.
+     */
+    public void record(int employeeID, long epochSecond, boolean clockIn) {
+        logs.computeIfAbsent(employeeID, id -> new PunchLog()).append(epochSecond, clockIn);
+    }
+
+    /**
+     * Records every punch in `punches`. Each employee's punches must be in time order in the stream's
+     * encounter order. The stream may be parallel: each part of it then encodes its punches into delta-encoded
+     * logs of its own, one per employee, as it goes. The parts' logs are joined in encounter order, so each
+     * employee's punches stay in order and no punch is kept as an object once encoded. A parallel ingest records
+     * nothing if any punch is out of order.
+     *
+     * @param punches The punches to record.
+     * @return The number of punches recorded.
+     * @throws IllegalArgumentException If any punch is earlier than the same employee's previous punch.
+     */
+    public long ingest(Stream<Punch> punches) {
+        if (!punches.isParallel()) {
+            long count = 0;
+            for (Punch punch : (Iterable<Punch>) punches::iterator) {
+                record(punch.getEmployeeID(), punch.getEpochSecond(), punch.isClockIn());
+                count++;
+            }
+            return count;
+        }
+        Map<Integer, PunchLog> parts = punches.collect(HashMap::new,
+                (part, punch) -> part.computeIfAbsent(punch.getEmployeeID(), id -> new PunchLog())
+                        .append(punch.getEpochSecond(), punch.isClockIn()),
+                (left, right) -> right.forEach((id, log) -> left.merge(id, log, PunchLog::appendAll)));
+        LongAdder count = new LongAdder();
+        parts.entrySet().parallelStream().forEach(entry -> {
+            PunchLog part = entry.getValue();
+            count.add(part.size());
+            // An employee with no punches yet takes the part's log as it is
+            PunchLog existing = logs.putIfAbsent(entry.getKey(), part);
+            if (existing != null) {
+                existing.appendAll(part);
+            }
+        });
+        return count.sum();
+    }
+
+    /**
+     * Drops every employee's punches from before the start of `day`, for example once the pay periods before it
+     * are closed. A clock-in before `day` whose clock-out comes later is kept, so the shift still counts, and
+     * each employee keeps at least their latest punch, so later punches are still checked against it.
+     * Hours for periods before `day` are no longer available afterwards.
+     *
+     * @param day The first day whose punches are kept.
+     * @param zone The time zone whose midnight starts the day.
+     * @return The number of punches dropped.
+     */
+    public long discardBefore(LocalDate day, ZoneId zone) {
+        long cutoff = day.atStartOfDay(zone).toEpochSecond();
+        long dropped = 0;
+        for (PunchLog log : logs.values()) {
+            dropped += log.discardBefore(cutoff);
+        }
+        return dropped;
+    }
+
+    /**
+     * Returns the number of punches recorded for all employees.
+     *
+     * @return The number of punches.
+     */
+    public long punchCount() {
+        long count = 0;
+        for (PunchLog log : logs.values()) {
+            count += log.size();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of bytes of punch storage allocated, counting the arrays' spare capacity.
+     *
+     * @return The bytes allocated for punches.
+     */
+    public long storageBytes() {
+        long bytes = 0;
+        for (PunchLog log : logs.values()) {
+            bytes += log.storageBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Computes the hours an employee worked on the days from `from` to `to`, inclusive, split into regular
+     * and overtime hours by `rule`. A shift that crosses midnight counts towards both days. Weeks for weekly
+     * overtime are consecutive 7-day blocks starting at `from`.
+     *
+     * @param employeeID The ID of the employee.
+     * @param from The first day of the pay period.
+     * @param to The last day of the pay period.
+     * @param zone The time zone whose midnights separate the days.
+     * @param rule The overtime rule.
+     * @return The hours worked in the period.
+     */
+    public WorkedHours hours(int employeeID, LocalDate from, LocalDate to, ZoneId zone, OvertimeRule rule) {
+        return hours(employeeID, dayStarts(from, to, zone), rule);
+    }
+
+    /**
+     * Sets the hours of every hourly employee in `employeeList` from their punches for the period, in parallel.
+     * The hours set are the hours worked, regular plus overtime, and the overtime hours are set with the rule's
+     * multiplier, so the employee is paid the overtime premium. Employees with no punches get 0 hours.
+     *
+     * @param employeeList The employees to update. Employees who are not hourly, or are terminated, are skipped.
+     * @param from The first day of the pay period.
+     * @param to The last day of the pay period.
+     * @param zone The time zone whose midnights separate the days.
+     * @param rule The overtime rule.
+     * @return The number of hourly employees updated.
+     */
+    public int applyTo(List<Employee> employeeList, LocalDate from, LocalDate to, ZoneId zone, OvertimeRule rule) {
+        long[] dayStarts = dayStarts(from, to, zone);
+        AtomicInteger updated = new AtomicInteger();
+        employeeList.parallelStream()
+                .filter(employee -> employee instanceof HourlyEmployee && !employee.isTerminated())
+                .forEach(employee -> {
+                    WorkedHours worked = hours(employee.getEmployeeNumber(), dayStarts, rule);
+                    HourlyEmployee hourly = (HourlyEmployee) employee;
+                    hourly.setHours(worked.getRegularHours() + worked.getOvertimeHours());
+                    hourly.setOvertime(worked.getOvertimeHours(), worked.getMultiplier());
+                    updated.incrementAndGet();
+                });
+        return updated.get();
+    }
+
+    /**
+     * Returns the start of every day in the period plus the end of the last day, in epoch seconds.
+     * Computed through the zone so days that change to or from daylight saving time have their real length.
+     */
+    private static long[] dayStarts(LocalDate from, LocalDate to, ZoneId zone) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Pay period ends before it starts");
+        }
+        int days = (int) (to.toEpochDay() - from.toEpochDay()) + 1;
+        long[] starts = new long[days + 1];
+        for (int d = 0; d <= days; d++) {
+            starts[d] = from.plusDays(d).atStartOfDay(zone).toEpochSecond();
+        }
+        return starts;
+    }
+
+    private WorkedHours hours(int employeeID, long[] dayStarts, OvertimeRule rule) {
+        PunchLog log = logs.get(employeeID);
+        int days = dayStarts.length - 1;
+        long[] secondsPerDay = new long[days];
+        if (log != null) {
+            log.addShifts(dayStarts, secondsPerDay);
+        }
+        return rule.apply(secondsPerDay);
+    }
+}
+
+/**
+ * The PunchLog class stores one employee's punches as delta-encoded timestamps, with the full timestamp of
+ * every `CHECKPOINT_INTERVAL`th punch kept as a checkpoint to start decoding from.
+ */
+class PunchLog {
+
+    // Punches between checkpoints; 8 bytes per 64 punches adds an eighth of a byte per punch
+    static final int CHECKPOINT_INTERVAL = 64;
+
+    private int[] entries = new int[8];
+    private int size;
+    // checkpoints[c] is the time of punch c * CHECKPOINT_INTERVAL
+    private long[] checkpoints = new long[1];
+    private long last;
+
+    /**
+     * Appends a punch, which must not be earlier than the previous one.
+     *
+     * @param epochSecond When the punch happened.
+     * @param clockIn True for a clock-in, false for a clock-out.
+     */
+    synchronized void append(long epochSecond, boolean clockIn) {
+        if (size == 0) {
+            last = epochSecond;
+        }
+        long delta = epochSecond - last;
+        if (delta < 0) {
+            throw new IllegalArgumentException("Punch at " + epochSecond + " is earlier than the previous punch at " + last);
+        }
+        if (delta > Integer.MAX_VALUE >> 1) {
+            throw new IllegalArgumentException("Punch at " + epochSecond + " is too long after the previous punch");
+        }
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size + (size >> 1));
+        }
+        if (size % CHECKPOINT_INTERVAL == 0) {
+            int c = size / CHECKPOINT_INTERVAL;
+            if (c == checkpoints.length) {
+                checkpoints = Arrays.copyOf(checkpoints, c * 2);
+            }
+            checkpoints[c] = epochSecond;
+        }
+        entries[size++] = (int) (delta << 1) | (clockIn ? 1 : 0);
+        last = epochSecond;
+    }
+
+    /**
+     * Appends every punch in `other` after this log's punches. No other thread may be using `other`.
+     *
+     * @param other The log to append.
+     * @return This log.
+     * @throws IllegalArgumentException If `other` starts before this log's latest punch.
+     */
+    synchronized PunchLog appendAll(PunchLog other) {
+        long time = other.size == 0 ? 0 : other.checkpoints[0];
+        for (int i = 0; i < other.size; i++) {
+            // The first entry's delta is 0, so it lands on the first checkpoint
+            time += other.entries[i] >>> 1;
+            append(time, (other.entries[i] & 1) == 1);
+        }
+        return this;
+    }
+
+    /**
+     * Drops the punches before `cutoff`, except a clock-in whose clock-out is at or after `cutoff`
+     * and the latest punch.
+     *
+     * @param cutoff The earliest time to keep, in epoch seconds.
+     * @return The number of punches dropped.
+     */
+    synchronized int discardBefore(long cutoff) {
+        long time = size == 0 ? 0 : checkpoints[0];
+        int keep = 0;
+        while (keep < size - 1) {
+            long next = time + (entries[keep + 1] >>> 1);
+            boolean pairsAcrossCutoff = (entries[keep] & 1) == 1 && (entries[keep + 1] & 1) == 0 && next >= cutoff;
+            if (time >= cutoff || pairsAcrossCutoff) {
+                break;
+            }
+            time = next;
+            keep++;
+        }
+        if (keep == 0) {
+            return 0;
+        }
+        int kept = size - keep;
+        int[] remaining = new int[Math.max(8, kept + (kept >> 1))];
+        System.arraycopy(entries, keep, remaining, 0, kept);
+        // The first punch is the base the deltas start from
+        remaining[0] &= 1;
+        entries = remaining;
+        size = kept;
+        checkpoints = new long[(kept + CHECKPOINT_INTERVAL - 1) / CHECKPOINT_INTERVAL + 1];
+        for (int i = 0; i < kept; i++) {
+            time = i == 0 ? time : time + (entries[i] >>> 1);
+            if (i % CHECKPOINT_INTERVAL == 0) {
+                checkpoints[i / CHECKPOINT_INTERVAL] = time;
+            }
+        }
+        return keep;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized long storageBytes() {
+        return entries.length * (long) Integer.BYTES + checkpoints.length * (long) Long.BYTES;
+    }
+
+    /**
+     * Pairs punches into shifts and adds the seconds of each shift that fall on each day to `secondsPerDay`.
+     *
+     * @param dayStarts The start of each day in the period plus the end of the last day, in epoch seconds.
+     * @param secondsPerDay The seconds worked on each day, added to.
+     */
+    synchronized void addShifts(long[] dayStarts, long[] secondsPerDay) {
+        if (size == 0) {
+            return;
+        }
+        long periodStart = dayStarts[0];
+        long periodEnd = dayStarts[dayStarts.length - 1];
+        // Start at the last checkpoint at or before the period. A shift ending at or before it cannot add
+        // anything to the period, so the punches before the checkpoint never need decoding
+        int low = 0;
+        int high = (size - 1) / CHECKPOINT_INTERVAL;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (checkpoints[mid] <= periodStart) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int from = low * CHECKPOINT_INTERVAL;
+        long time = checkpoints[low] - (entries[from] >>> 1);
+        boolean onClock = false;
+        long clockedIn = 0;
+        int day = 0;
+        for (int i = from; i < size; i++) {
+            int entry = entries[i];
+            time += entry >>> 1;
+            if ((entry & 1) == 1) {
+                onClock = true;
+                clockedIn = time;
+            } else if (onClock) {
+                long start = Math.max(clockedIn, periodStart);
+                long end = Math.min(time, periodEnd);
+                // Shifts arrive in time order, so the day only ever moves forward
+                while (start < end) {
+                    while (dayStarts[day + 1] <= start) {
+                        day++;
+                    }
+                    long split = Math.min(end, dayStarts[day + 1]);
+                    secondsPerDay[day] += split - start;
+                    start = split;
+                }
+                onClock = false;
+                if (time >= periodEnd) {
+                    break;
+                }
+            }
+        }
+    }
+}
+
+/**
+ * The Punch class represents one clock-in or clock-out from a time clock.
+ */
+class Punch {
+
+    private final int employeeID;
+    private final long epochSecond;
+    private final boolean clockIn;
+
+    /**
+     * Constructs a Punch.
+     *
+     * @param employeeID The ID of the employee who punched.
+     * @param epochSecond When the punch happened, in seconds since 1970-01-01T00:00Z.
+     * @param clockIn True for a clock-in, false for a clock-out.
+     */
+    public Punch(int employeeID, long epochSecond, boolean clockIn) {
+        this.employeeID = employeeID;
+        this.epochSecond = epochSecond;
+        this.clockIn = clockIn;
+    }
+
+    public int getEmployeeID() {
+        return employeeID;
+    }
+
+    public long getEpochSecond() {
+        return epochSecond;
+    }
+
+    public boolean isClockIn() {
+        return clockIn;
+    }
+}
+
+/**
+ * The OvertimeRule class decides which hours are paid at the overtime multiplier.
+ * Hours over the daily limit on any day are overtime; of the remaining hours, those over the weekly limit
+ * in any week are overtime too, so no hour counts twice.
+ */
+class OvertimeRule {
+
+    // Overtime after 40 hours a week, as under the US Fair Labor Standards Act
+    public static final OvertimeRule WEEKLY_40 = new OvertimeRule(24, 40, 1.5f);
+    // Overtime after 8 hours a day or 40 hours a week, as in California
+    public static final OvertimeRule DAILY_8_WEEKLY_40 = new OvertimeRule(8, 40, 1.5f);
+    // Every hour is a regular hour
+    public static final OvertimeRule NONE = new OvertimeRule(24, 7 * 24, 1);
+
+    private final float dailyLimit;
+    private final float weeklyLimit;
+    private final float multiplier;
+
+    /**
+     * Constructs an OvertimeRule.
+     *
+     * @param dailyLimit The regular hours per day; 24 for no daily overtime.
+     * @param weeklyLimit The regular hours per week; 168 for no weekly overtime.
+     * @param multiplier The pay multiplier for overtime hours, such as 1.5 for time and a half.
+     */
+    public OvertimeRule(float dailyLimit, float weeklyLimit, float multiplier) {
+        this.dailyLimit = dailyLimit;
+        this.weeklyLimit = weeklyLimit;
+        this.multiplier = multiplier;
+    }
+
+    public float getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * Splits the seconds worked on each day of a period into regular and overtime hours.
+     *
+     * @param secondsPerDay The seconds worked on each day of the period, the first day starting the first week.
+     * @return The hours worked.
+     */
+    WorkedHours apply(long[] secondsPerDay) {
+        double regular = 0;
+        double overtime = 0;
+        for (int weekStart = 0; weekStart < secondsPerDay.length; weekStart += 7) {
+            double weekRegular = 0;
+            for (int d = weekStart; d < Math.min(secondsPerDay.length, weekStart + 7); d++) {
+                double hours = secondsPerDay[d] / 3600.0;
+                weekRegular += Math.min(hours, dailyLimit);
+                overtime += Math.max(0, hours - dailyLimit);
+            }
+            regular += Math.min(weekRegular, weeklyLimit);
+            overtime += Math.max(0, weekRegular - weeklyLimit);
+        }
+        return new WorkedHours((float) regular, (float) overtime, multiplier);
+    }
+}
+
+/**
+ * The WorkedHours class holds an employee's regular and overtime hours for a pay period.
+ */
+class WorkedHours {
+
+    private final float regularHours;
+    private final float overtimeHours;
+    private final float multiplier;
+
+    /**
+     * Constructs a WorkedHours.
+     *
+     * @param regularHours The hours paid at the regular rate.
+     * @param overtimeHours The hours paid at the overtime multiplier.
+     * @param multiplier The overtime multiplier.
+     */
+    public WorkedHours(float regularHours, float overtimeHours, float multiplier) {
+        this.regularHours = regularHours;
+        this.overtimeHours = overtimeHours;
+        this.multiplier = multiplier;
+    }
+
+    public float getRegularHours() {
+        return regularHours;
+    }
+
+    public float getOvertimeHours() {
+        return overtimeHours;
+    }
+
+    public float getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * Returns the hours to pay at the regular rate: regular hours plus overtime hours times the multiplier.
+     *
+     * @return The paid hours.
+     */
+    public float getPaidHours() {
+        return regularHours + overtimeHours * multiplier;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.2f regular, %.2f overtime", regularHours, overtimeHours);
+    }
+}
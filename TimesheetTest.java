@@ -0,0 +1,220 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class that contains unit tests for Timesheet. Each test records punches for a pay period and checks
+ * the regular and overtime hours they add up to.
+ */
+class TimesheetTest {
+
+    private static final ZoneId UTC = ZoneOffset.UTC;
+    private static final LocalDate MONDAY = LocalDate.of(2025, 3, 3);
+
+    private static long at(LocalDate day, int hour, int minute) {
+        return LocalDateTime.of(day, LocalTime.of(hour, minute)).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Tests weekly and daily overtime for a week of 10-hour days, and that an `HourlyEmployee` updated from
+     * the timesheet keeps the hours worked as its hours and is paid the overtime premium.
+     */
+    @Test
+    void testOvertimeRules() {
+        HourlyEmployee emp = new HourlyEmployee("Chris", "Evans", 20);
+        Timesheet timesheet = new Timesheet();
+        for (int d = 0; d < 5; d++) {
+            timesheet.record(emp.getEmployeeNumber(), at(MONDAY.plusDays(d), 8, 0), true);
+            timesheet.record(emp.getEmployeeNumber(), at(MONDAY.plusDays(d), 18, 0), false);
+        }
+        LocalDate sunday = MONDAY.plusDays(6);
+
+        WorkedHours weekly = timesheet.hours(emp.getEmployeeNumber(), MONDAY, sunday, UTC, OvertimeRule.WEEKLY_40);
+        assertEquals(40f, weekly.getRegularHours());
+        assertEquals(10f, weekly.getOvertimeHours());
+
+        WorkedHours daily = timesheet.hours(emp.getEmployeeNumber(), MONDAY, sunday, UTC, OvertimeRule.DAILY_8_WEEKLY_40);
+        assertEquals(40f, daily.getRegularHours());
+        assertEquals(10f, daily.getOvertimeHours());
+
+        WorkedHours none = timesheet.hours(emp.getEmployeeNumber(), MONDAY, sunday, UTC, OvertimeRule.NONE);
+        assertEquals(50f, none.getRegularHours());
+        assertEquals(0f, none.getOvertimeHours());
+
+        assertEquals(1, timesheet.applyTo(List.of(emp), MONDAY, sunday, UTC, OvertimeRule.WEEKLY_40));
+        assertEquals(50f, emp.getHours());
+        assertEquals(10f, emp.getOvertimeHours());
+        assertEquals(55f * 20, emp.getPaycheck());
+        assertEquals(55f * 20, PayKernel.of(List.of(emp)).compute()[0]);
+        assertTrue(EmployeeQuery.parse("hours = 50").asPredicate().test(emp));
+    }
+
+    /**
+     * Tests a shift that crosses midnight and the end of the period, a missed clock-out, a stray clock-out
+     * and a shift still in progress.
+     */
+    @Test
+    void testShiftPairing() {
+        Timesheet timesheet = new Timesheet();
+        int id = 5;
+        // Overnight shift: 4 hours on Monday, 6 on Tuesday
+        timesheet.record(id, at(MONDAY, 20, 0), true);
+        timesheet.record(id, at(MONDAY.plusDays(1), 6, 0), false);
+        // Missed clock-out: the 9:00 clock-in is dropped, 13:00 to 15:30 counts
+        timesheet.record(id, at(MONDAY.plusDays(2), 9, 0), true);
+        timesheet.record(id, at(MONDAY.plusDays(2), 13, 0), true);
+        timesheet.record(id, at(MONDAY.plusDays(2), 15, 30), false);
+        // Stray clock-out is ignored
+        timesheet.record(id, at(MONDAY.plusDays(2), 16, 0), false);
+        // Still on the clock
+        timesheet.record(id, at(MONDAY.plusDays(3), 9, 0), true);
+        assertEquals(7, timesheet.punchCount());
+
+        WorkedHours monday = timesheet.hours(id, MONDAY, MONDAY, UTC, OvertimeRule.NONE);
+        assertEquals(4f, monday.getRegularHours());
+        WorkedHours week = timesheet.hours(id, MONDAY, MONDAY.plusDays(6), UTC, OvertimeRule.DAILY_8_WEEKLY_40);
+        assertEquals(12.5f, week.getRegularHours());
+        assertEquals(0f, week.getOvertimeHours());
+        assertEquals(0f, timesheet.hours(id + 1, MONDAY, MONDAY, UTC, OvertimeRule.NONE).getRegularHours());
+
+        assertThrows(IllegalArgumentException.class, () -> timesheet.record(id, at(MONDAY, 0, 0), false));
+    }
+
+    /**
+     * Tests ingesting one parallel stream of interleaved punches for many employees, each employee's
+     * punches in order, that a sequential stream gives the same hours, that a second parallel stream appends
+     * to the employees' punches, and that a parallel stream with a punch out of order records nothing.
+     */
+    @Test
+    void testParallelIngest() {
+        List<Punch> punches = new ArrayList<>();
+        for (int d = 0; d < 7; d++) {
+            for (int id = 0; id < 500; id++) {
+                punches.add(new Punch(id, at(MONDAY.plusDays(d), 9, 0), true));
+            }
+            for (int id = 0; id < 500; id++) {
+                punches.add(new Punch(id, at(MONDAY.plusDays(d), 17, 0), false));
+            }
+        }
+        Timesheet timesheet = new Timesheet();
+        assertEquals(7000, timesheet.ingest(punches.parallelStream()));
+        assertEquals(7000, timesheet.punchCount());
+        assertTrue(timesheet.storageBytes() >= 7000 * Integer.BYTES);
+        Timesheet sequential = new Timesheet();
+        assertEquals(7000, sequential.ingest(punches.stream()));
+        for (int id = 0; id < 500; id++) {
+            WorkedHours hours = timesheet.hours(id, MONDAY, MONDAY.plusDays(6), UTC, OvertimeRule.WEEKLY_40);
+            assertEquals(40f, hours.getRegularHours());
+            assertEquals(16f, hours.getOvertimeHours());
+            assertEquals(hours.getRegularHours(),
+                    sequential.hours(id, MONDAY, MONDAY.plusDays(6), UTC, OvertimeRule.WEEKLY_40).getRegularHours());
+        }
+
+        // The next week as a stream that creates its punches as it goes: 500 clock-ins, then 500 clock-outs, per day
+        LocalDate nextMonday = MONDAY.plusDays(7);
+        assertEquals(5000, timesheet.ingest(IntStream.range(0, 5000).parallel().mapToObj(i ->
+                new Punch(i % 500, at(nextMonday.plusDays(i / 1000), i % 1000 < 500 ? 8 : 16, 0), i % 1000 < 500))));
+        assertEquals(12000, timesheet.punchCount());
+        assertEquals(40f, timesheet.hours(42, nextMonday, nextMonday.plusDays(6), UTC, OvertimeRule.WEEKLY_40)
+                .getRegularHours());
+        assertEquals(56f, timesheet.hours(42, MONDAY, MONDAY.plusDays(6), UTC, OvertimeRule.NONE).getRegularHours());
+
+        List<Punch> outOfOrder = new ArrayList<>(punches.subList(0, 1000));
+        outOfOrder.add(new Punch(7, at(MONDAY, 8, 0), false));
+        Timesheet rejected = new Timesheet();
+        assertThrows(IllegalArgumentException.class, () -> rejected.ingest(outOfOrder.parallelStream()));
+        assertEquals(0, rejected.punchCount());
+    }
+
+    /**
+     * Tests hours for a week late in a long history, where decoding starts at a checkpoint, including an overnight
+     * shift into the week and a shift whose punches straddle a checkpoint.
+     */
+    @Test
+    void testLongHistory() {
+        Timesheet timesheet = new Timesheet();
+        int id = 7;
+        // A stray clock-out first, so every clock-in sits just before a checkpoint's clock-out
+        timesheet.record(id, at(MONDAY.minusDays(1), 12, 0), false);
+        for (int d = 0; d < 400; d++) {
+            timesheet.record(id, at(MONDAY.plusDays(d), 20, 0), true);
+            timesheet.record(id, at(MONDAY.plusDays(d + 1), 4, 0), false);
+        }
+        assertEquals(801, timesheet.punchCount());
+        for (int week = 0; week < 57; week += 8) {
+            LocalDate start = MONDAY.plusDays(week * 7L);
+            // Six full shifts, the 4 hours after Sunday's 20:00 and, after the first week, the 4 hours
+            // of the previous Sunday's shift
+            WorkedHours hours = timesheet.hours(id, start, start.plusDays(6), UTC, OvertimeRule.NONE);
+            assertEquals(week == 0 ? 52f : 56f, hours.getRegularHours());
+        }
+        assertEquals(4f, timesheet.hours(id, MONDAY.plusDays(400), MONDAY.plusDays(400), UTC, OvertimeRule.NONE)
+                .getRegularHours());
+    }
+
+    /**
+     * Tests dropping the punches before a day: closed weeks no longer count, a shift crossing the cutoff
+     * and the weeks after it are unchanged, and later punches are still checked against the latest one.
+     */
+    @Test
+    void testDiscardBefore() {
+        Timesheet timesheet = new Timesheet();
+        for (int id = 0; id < 3; id++) {
+            for (int d = 0; d < 13; d++) {
+                timesheet.record(id, at(MONDAY.plusDays(d), 9, 0), true);
+                timesheet.record(id, at(MONDAY.plusDays(d), 17, 0), false);
+            }
+            // Overnight shift from the first week's Sunday into the second week
+            timesheet.record(id, at(MONDAY.plusDays(13), 20, 0), true);
+            timesheet.record(id, at(MONDAY.plusDays(14), 6, 0), false);
+        }
+        LocalDate nextMonday = MONDAY.plusDays(14);
+        WorkedHours before = timesheet.hours(1, nextMonday, nextMonday.plusDays(6), UTC, OvertimeRule.NONE);
+        assertEquals(6f, before.getRegularHours());
+
+        // Keeps each employee's overnight clock-in and clock-out
+        assertEquals(3 * 26, timesheet.discardBefore(nextMonday, UTC));
+        assertEquals(6, timesheet.punchCount());
+        assertEquals(0, timesheet.discardBefore(nextMonday, UTC));
+        assertEquals(before.getRegularHours(),
+                timesheet.hours(1, nextMonday, nextMonday.plusDays(6), UTC, OvertimeRule.NONE).getRegularHours());
+        assertEquals(4f, timesheet.hours(1, MONDAY.plusDays(13), MONDAY.plusDays(13), UTC, OvertimeRule.NONE)
+                .getRegularHours());
+        assertEquals(0f, timesheet.hours(1, MONDAY, MONDAY.plusDays(6), UTC, OvertimeRule.NONE).getRegularHours());
+
+        // Only the latest punch is left once everything is before the cutoff
+        assertEquals(3, timesheet.discardBefore(nextMonday.plusDays(30), UTC));
+        assertEquals(3, timesheet.punchCount());
+        assertThrows(IllegalArgumentException.class, () -> timesheet.record(1, at(nextMonday, 5, 0), true));
+        timesheet.record(1, at(nextMonday.plusDays(1), 9, 0), true);
+        timesheet.record(1, at(nextMonday.plusDays(1), 17, 30), false);
+        assertEquals(8.5f, timesheet.hours(1, nextMonday, nextMonday.plusDays(6), UTC, OvertimeRule.NONE)
+                .getRegularHours());
+    }
+
+    /**
+     * Tests shifts with clock-ins before 1970, which have negative epoch seconds.
+     */
+    @Test
+    void testBeforeEpoch() {
+        Timesheet timesheet = new Timesheet();
+        LocalDate day = LocalDate.of(1969, 12, 31);
+        timesheet.record(1, at(day, 9, 0), true);
+        timesheet.record(1, at(day, 17, 0), false);
+        // Overnight shift across the epoch itself
+        timesheet.record(1, at(day, 22, 0), true);
+        timesheet.record(1, at(day.plusDays(1), 2, 0), false);
+        assertEquals(12f, timesheet.hours(1, day, day, UTC, OvertimeRule.NONE).getRegularHours()
+                + timesheet.hours(1, day.plusDays(1), day.plusDays(1), UTC, OvertimeRule.NONE).getRegularHours());
+        assertEquals(10f, timesheet.hours(1, day, day, UTC, OvertimeRule.NONE).getRegularHours());
+    }
+}
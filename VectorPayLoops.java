@@ -0,0 +1,80 @@
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * The VectorPayLoops class computes each pay group with the incubating Vector API, a whole SIMD register of
+ * employees per instruction: 16 at a time with AVX-512, 8 with AVX2. The arithmetic is the same as
+ * `ScalarPayLoops`, operation for operation, and the employees left over after the last full register are computed
+ * with the scalar expressions, so results are identical.
+ * This class needs `--add-modules jdk.incubator.vector` to compile and run; `PayKernel` loads it only when
+ * that module is present.
+ */
+class VectorPayLoops implements PayLoops {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public void hourly(float[] hours, float[] rates, float[] out) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(out.length); i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, hours, i)
+                    .mul(FloatVector.fromArray(SPECIES, rates, i))
+                    .intoArray(out, i);
+        }
+        for (; i < out.length; i++) {
+            out[i] = hours[i] * rates[i];
+        }
+    }
+
+    @Override
+    public void salaried(float[] salaries, int periods, float[] out) {
+        float divisor = periods;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(out.length); i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, salaries, i).div(divisor).intoArray(out, i);
+        }
+        for (; i < out.length; i++) {
+            out[i] = salaries[i] / periods;
+        }
+    }
+
+    @Override
+    public void commission(float[] baseSalaries, float[] unitsSold, int tiers, float[] tierThresholds, float[] tierRates,
+                           int periods, float[] rate, float[] out) {
+        int n = out.length;
+        int bound = SPECIES.loopBound(n);
+        for (int i = 0; i < n; i++) {
+            rate[i] = 0f;
+        }
+        for (int t = 0; t < tiers; t++) {
+            int offset = t * n;
+            int i = 0;
+            for (; i < bound; i += SPECIES.length()) {
+                FloatVector units = FloatVector.fromArray(SPECIES, unitsSold, i);
+                FloatVector reached = units.sub(FloatVector.fromArray(SPECIES, tierThresholds, offset + i))
+                        .add(1f)
+                        .lanewise(VectorOperators.MAX, 0f)
+                        .lanewise(VectorOperators.MIN, 1f);
+                FloatVector kept = FloatVector.broadcast(SPECIES, 1f).sub(reached)
+                        .mul(FloatVector.fromArray(SPECIES, rate, i));
+                reached.mul(FloatVector.fromArray(SPECIES, tierRates, offset + i)).add(kept).intoArray(rate, i);
+            }
+            for (; i < n; i++) {
+                float reached = Math.min(1f, Math.max(0f, unitsSold[i] - tierThresholds[offset + i] + 1f));
+                rate[i] = reached * tierRates[offset + i] + (1f - reached) * rate[i];
+            }
+        }
+        float divisor = periods;
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, baseSalaries, i).div(divisor)
+                    .add(FloatVector.fromArray(SPECIES, rate, i).mul(FloatVector.fromArray(SPECIES, unitsSold, i)))
+                    .intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = baseSalaries[i] / periods + rate[i] * unitsSold[i];
+        }
+    }
+}